@@ -0,0 +1,78 @@
+package org.example;
+
+import j2html.tags.specialized.UlTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static j2html.TagCreator.*;
+
+/** Plain attributes against {@link InternedAttribute}, building and rendering a 200-item link list. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class AttributeBenchmark {
+    private static final int ITEMS = 200;
+
+    private UlTag plainList;
+    private UlTag internedList;
+
+    static UlTag plain() {
+        UlTag list = ul().withClass("list-group");
+        for (int i = 0; i < ITEMS; i++) {
+            list.with(li(a("Link " + i).withHref("#").withTarget("_blank").withRel("noopener noreferrer"))
+                    .withClass("list-group-item"));
+        }
+        return list;
+    }
+
+    static UlTag interned() {
+        UlTag list = ul().attr(InternedAttribute.of("class", "list-group"));
+        for (int i = 0; i < ITEMS; i++) {
+            list.with(li(a("Link " + i)
+                    .attr(InternedAttribute.of("href", "#"))
+                    .attr(InternedAttribute.of("target", "_blank"))
+                    .attr(InternedAttribute.of("rel", "noopener noreferrer")))
+                    .attr(InternedAttribute.of("class", "list-group-item")));
+        }
+        return list;
+    }
+
+    @Setup
+    public void setUp() {
+        plainList = plain();
+        internedList = interned();
+    }
+
+    @Benchmark
+    public String renderPlain() {
+        return plainList.render();
+    }
+
+    @Benchmark
+    public String renderInterned() {
+        return internedList.render();
+    }
+
+    @Benchmark
+    public String buildAndRenderPlain() {
+        return plain().render();
+    }
+
+    @Benchmark
+    public String buildAndRenderInterned() {
+        return interned().render();
+    }
+}
@@ -0,0 +1,88 @@
+package org.example;
+
+import j2html.tags.DomContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static j2html.TagCreator.*;
+
+/**
+ * Render throughput under concurrency. {@link #render} is meant to be run at
+ * increasing JMH thread counts by {@link ScalingRunner}; {@link #virtualThreads}
+ * pushes batches of renders through one virtual thread per render (or a
+ * fork-join pool before JDK 21).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrencyBenchmark {
+    static final int BATCH = 1000;
+
+    static DomContent page(int id) {
+        return div(
+                h2("Order #" + id).withClass("title"),
+                ul(li("Item <A> & " + id), li("Item 'B'"), li("Item \"C\"")),
+                a("Details").withHref("/orders?id=" + id).withTarget("_blank")
+        ).withClass("card");
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int id;
+    }
+
+    @Benchmark
+    public String render(ThreadState state) {
+        return page(state.id++).render();
+    }
+
+    @State(Scope.Benchmark)
+    public static class VirtualThreadState {
+        ExecutorService executor;
+
+        @Setup(Level.Trial)
+        public void start() {
+            executor = PageBatchRenderer.newExecutor();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int virtualThreads(VirtualThreadState state) throws InterruptedException, ExecutionException {
+        List<Future<String>> results = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            int id = i;
+            results.add(state.executor.submit(() -> page(id).render()));
+        }
+        int length = 0;
+        for (Future<String> result : results) {
+            length += result.get().length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example;
+
+import j2html.utils.EscapeUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** j2html's default escaper against {@link FastEscaper} on clean and dirty text. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class EscaperBenchmark {
+
+    @Param({
+            "This is an example of using J2HTML in a Maven project.",
+            "<script>alert('xss');</script> & \"more\""
+    })
+    public String text;
+
+    @Benchmark
+    public String escapeUtil() {
+        return EscapeUtil.escape(text);
+    }
+
+    @Benchmark
+    public String fastEscaper() {
+        return FastEscaper.INSTANCE.escape(text);
+    }
+}
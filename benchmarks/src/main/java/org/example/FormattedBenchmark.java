@@ -0,0 +1,51 @@
+package org.example;
+
+import j2html.tags.ContainerTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static j2html.TagCreator.*;
+
+/** j2html's {@code renderFormatted()} against {@link FormattedHtml} for lists nested {@code depth} levels deep. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FormattedBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int depth;
+
+    private ContainerTag<?> list;
+
+    @Setup
+    public void setUp() {
+        list = ul(li("Level " + depth));
+        for (int level = depth - 1; level > 0; level--) {
+            list = ul(li("Level " + level).with(list));
+        }
+    }
+
+    @Benchmark
+    public String renderFormatted() {
+        return list.renderFormatted();
+    }
+
+    @Benchmark
+    public String formattedHtml() {
+        return FormattedHtml.render(list);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example;
+
+import j2html.rendering.FlatHtml;
+import j2html.tags.DomContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static j2html.TagCreator.*;
+
+/**
+ * {@link HtmlFragmentReader} on a rendered 1,000-row table (about 95 KB),
+ * compared with rendering the table from its model. Divide the input size by
+ * the average time for MB/s.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FragmentReaderBenchmark {
+    private String html;
+
+    static DomContent table1000Rows() {
+        return table(each(IntStream.range(0, 1000).boxed()
+                .map(i -> tr(td("Row " + i).withClass("name"), td(a("Edit").withHref("/rows/" + i + "?mode=edit&x=1")),
+                        td("<ok>")))));
+    }
+
+    @Setup
+    public void setUp() {
+        html = table1000Rows().render();
+    }
+
+    @Benchmark
+    public String renderFromModel() {
+        return table1000Rows().render();
+    }
+
+    @Benchmark
+    public FrozenHtml parse() {
+        return HtmlFragmentReader.parse(html);
+    }
+
+    @Benchmark
+    public StringBuilder readIntoFlatHtml() {
+        return HtmlFragmentReader.read(html, FlatHtml.into(new StringBuilder(html.length())));
+    }
+
+    @Benchmark
+    public String parseAndPatch() {
+        return HtmlFragmentReader.parse(html).withAttribute("class", "patched").render();
+    }
+}
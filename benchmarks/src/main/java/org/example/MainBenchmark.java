@@ -0,0 +1,69 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static j2html.TagCreator.p;
+
+/**
+ * Rendering benchmarks for {@link Main#generateHtml()}, its precompiled variant
+ * and the paragraph loop that {@code MainTest.performanceLargeHtmlGeneration}
+ * used to time by hand.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MainBenchmark {
+
+    private static final int PARAGRAPHS = 10000;
+
+    private final Utf8Buffer utf8Buffer = new Utf8Buffer();
+
+    @Benchmark
+    public String generateHtml() {
+        return Main.generateHtml();
+    }
+
+    @Benchmark
+    public String generateHtmlUnpooled() {
+        return Main.page().render();
+    }
+
+    @Benchmark
+    public byte[] generateHtmlBytes() {
+        return Main.generateHtml().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Utf8Buffer generateHtmlUtf8() throws IOException {
+        return Main.generateHtmlUtf8(utf8Buffer.reset());
+    }
+
+    @Benchmark
+    public String precompiledHtml() {
+        return Main.precompiledPage().html();
+    }
+
+    @Benchmark
+    public String paragraphLoop() {
+        StringBuilder largeHtml = new StringBuilder();
+        for (int i = 0; i < PARAGRAPHS; i++) {
+            largeHtml.append(p("Paragraph " + i).render());
+        }
+        return largeHtml.toString();
+    }
+}
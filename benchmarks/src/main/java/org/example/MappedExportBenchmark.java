@@ -0,0 +1,73 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Streams a table of {@code rows} rows to disk through a buffered file writer
+ * and through {@link MappedHtmlFile}. Run with {@code -prof gc} to compare
+ * allocation per export.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MappedExportBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private StreamingTable<Integer> table;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        table = new StreamingTable<Integer>()
+                .withClass("report")
+                .withColumn("Row", i -> "Row " + i)
+                .withColumn("Amount", i -> String.valueOf(i * 3))
+                .withColumn("Note", i -> "<ok> & done");
+        file = Files.createTempFile("export", ".html");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long bufferedWriter() throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            table.render(IntStream.range(0, rows).boxed(), out);
+        }
+        return Files.size(file);
+    }
+
+    @Benchmark
+    public long mappedFile() throws IOException {
+        try (MappedHtmlFile out = new MappedHtmlFile(file)) {
+            table.render(IntStream.range(0, rows).boxed(), out);
+            return out.size();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the metrics layer: {@code Main.generateHtml()} with metrics off
+ * ({@code noop}) and on ({@code jmx}), and a bare {@link JmxRenderMetrics#record}
+ * call. The overhead that has to stay under 50ns is the difference between
+ * the two renders, which {@link #main} prints; remaining arguments are passed
+ * to JMH.
+ * <pre>java -cp benchmarks/target/benchmarks.jar org.example.MetricsBenchmark</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+    private final JmxRenderMetrics metrics = new JmxRenderMetrics();
+    private long latency;
+
+    @Param({"noop", "jmx"})
+    public String installed;
+
+    @Setup
+    public void install() {
+        MeteredRender.setMetrics("jmx".equals(installed) ? metrics : RenderMetrics.NOOP);
+    }
+
+    @TearDown
+    public void uninstall() {
+        MeteredRender.setMetrics(RenderMetrics.NOOP);
+    }
+
+    @Benchmark
+    public void record() {
+        metrics.record(++latency & 0xFFFFF, 180, 9, 2048);
+    }
+
+    @Benchmark
+    public String generateHtml() {
+        return Main.generateHtml();
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        double[] scores = new double[2];
+        String[] params = {"noop", "jmx"};
+        for (int i = 0; i < params.length; i++) {
+            RunResult result = new Runner(new OptionsBuilder()
+                    .parent(commandLine)
+                    .include(MetricsBenchmark.class.getName() + ".generateHtml$")
+                    .param("installed", params[i])
+                    .verbosity(VerboseMode.SILENT)
+                    .build()).runSingle();
+            scores[i] = result.getPrimaryResult().getScore();
+        }
+        System.out.printf("%-12s %10.1f ns/op%n", "unmetered", scores[0]);
+        System.out.printf("%-12s %10.1f ns/op%n", "metered", scores[1]);
+        System.out.printf("%-12s %10.1f ns/op%n", "overhead", scores[1] - scores[0]);
+    }
+}
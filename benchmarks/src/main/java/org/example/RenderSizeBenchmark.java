@@ -0,0 +1,57 @@
+package org.example;
+
+import j2html.tags.DomContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static j2html.TagCreator.*;
+
+/** Rendering into a default-sized builder against one presized by {@link RenderSizeEstimator}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RenderSizeBenchmark {
+
+    @Param({"page", "table"})
+    public String tree;
+
+    private DomContent content;
+
+    @Setup
+    public void setUp() {
+        content = "page".equals(tree)
+                ? Main.page()
+                : table(each(IntStream.range(0, 1000).boxed()
+                        .map(i -> tr(td("Row " + i), td(String.valueOf(i * 3)), td("<ok>")))));
+    }
+
+    @Benchmark
+    public String render() {
+        return content.render();
+    }
+
+    @Benchmark
+    public String renderPresized() {
+        return RenderSizeEstimator.render(content);
+    }
+
+    @Benchmark
+    public long exactLength() {
+        return RenderSizeEstimator.exactLength(content);
+    }
+}
@@ -0,0 +1,57 @@
+package org.example;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs {@link ConcurrencyBenchmark#render} at 1, 2, 4 ... N threads (N being
+ * the available processors unless given as the first argument) and prints the
+ * scaling curve: throughput, speed-up over one thread and efficiency, i.e.
+ * speed-up divided by the thread count. Remaining arguments are passed to JMH.
+ * <pre>java -cp benchmarks/target/benchmarks.jar org.example.ScalingRunner 64</pre>
+ */
+public class ScalingRunner {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        String[] jmhArgs = args;
+        if (args.length > 0 && args[0].matches("\\d+")) {
+            maxThreads = Integer.parseInt(args[0]);
+            jmhArgs = new String[args.length - 1];
+            System.arraycopy(args, 1, jmhArgs, 0, jmhArgs.length);
+        }
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs);
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(maxThreads);
+
+        List<Double> scores = new ArrayList<>();
+        for (int threads : threadCounts) {
+            RunResult result = new Runner(new OptionsBuilder()
+                    .parent(commandLine)
+                    .include(ConcurrencyBenchmark.class.getName() + ".render$")
+                    .threads(threads)
+                    .verbosity(VerboseMode.SILENT)
+                    .build()).runSingle();
+            scores.add(result.getPrimaryResult().getScore());
+        }
+
+        System.out.printf("%8s %16s %10s %11s%n", "threads", "renders/ms", "speed-up", "efficiency");
+        double single = scores.get(0);
+        for (int i = 0; i < threadCounts.size(); i++) {
+            int threads = threadCounts.get(i);
+            double speedUp = scores.get(i) / single;
+            System.out.printf("%8d %16.1f %10.2f %10.0f%%%n", threads, scores.get(i), speedUp, 100 * speedUp / threads);
+        }
+    }
+}
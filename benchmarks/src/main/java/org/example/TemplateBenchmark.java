@@ -0,0 +1,56 @@
+package org.example;
+
+import j2html.tags.specialized.HtmlTag;
+import org.example.processor.HtmlTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static j2html.TagCreator.*;
+
+/**
+ * The example page built with the DSL on every call against the class
+ * generated from the same {@link HtmlTemplate} method.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TemplateBenchmark {
+    private final String title = "J2HTML Example";
+    private final String heading = "Hello, J2HTML!";
+    private final String paragraph = "This is an example of using J2HTML in a Maven project.";
+
+    @HtmlTemplate
+    static HtmlTag examplePage(String title, String heading, String paragraph) {
+        return html(
+                head(
+                        title(title)
+                ),
+                body(
+                        h1(heading),
+                        p(paragraph)
+                )
+        );
+    }
+
+    @Benchmark
+    public String dsl() {
+        return examplePage(title, heading, paragraph).render();
+    }
+
+    @Benchmark
+    public String generated() {
+        return ExamplePageTemplate.render(title, heading, paragraph);
+    }
+}
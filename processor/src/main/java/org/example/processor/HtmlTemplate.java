@@ -0,0 +1,25 @@
+package org.example.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a static method that builds a page with the j2html DSL. Every
+ * parameter must be a {@code String} and is treated as a dynamic slot; the
+ * rest of the tree is constant. {@link HtmlTemplateProcessor} generates a class
+ * whose {@code render} methods write the constant markup as precomputed chunks
+ * and only escape the slot values.
+ * <p>
+ * Slot parameters must be used as text or attribute values (including inside
+ * string concatenation) and must not be inspected, transformed or passed to
+ * {@code rawHtml}; violations are reported when the generated class loads.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface HtmlTemplate {
+
+    /** Simple name of the generated class; defaults to the method name plus {@code Template}. */
+    String className() default "";
+}
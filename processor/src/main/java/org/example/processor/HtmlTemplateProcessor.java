@@ -0,0 +1,157 @@
+package org.example.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a template class for every {@link HtmlTemplate} method. The
+ * generated class holds a {@link TemplateChunks} built from the method and
+ * exposes typed {@code render} and {@code writeTo} methods, one parameter per
+ * slot.
+ */
+@SupportedAnnotationTypes("org.example.processor.HtmlTemplate")
+public class HtmlTemplateProcessor extends AbstractProcessor {
+    private static final String DOM_CONTENT = "j2html.tags.DomContent";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(HtmlTemplate.class)) {
+            if (element.getKind() == ElementKind.METHOD && isValid((ExecutableElement) element)) {
+                generate((ExecutableElement) element);
+            }
+        }
+        return true;
+    }
+
+    private boolean isValid(ExecutableElement method) {
+        Messager messager = processingEnv.getMessager();
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        boolean valid = true;
+        if (!method.getModifiers().contains(Modifier.STATIC) || method.getModifiers().contains(Modifier.PRIVATE)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@HtmlTemplate methods must be static and not private", method);
+            valid = false;
+        }
+        for (Element type = method.getEnclosingElement(); type instanceof TypeElement; type = type.getEnclosingElement()) {
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@HtmlTemplate methods cannot be declared in private classes", method);
+                valid = false;
+            }
+        }
+        TypeElement domContent = elements.getTypeElement(DOM_CONTENT);
+        if (domContent == null || !types.isAssignable(method.getReturnType(), domContent.asType())) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@HtmlTemplate methods must return " + DOM_CONTENT, method);
+            valid = false;
+        }
+        TypeMirror string = elements.getTypeElement("java.lang.String").asType();
+        for (VariableElement parameter : method.getParameters()) {
+            if (!types.isSameType(parameter.asType(), string)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@HtmlTemplate slot parameters must be Strings", parameter);
+                valid = false;
+            }
+        }
+        if (method.isVarArgs()) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@HtmlTemplate methods cannot be varargs", method);
+            valid = false;
+        }
+        return valid;
+    }
+
+    private void generate(ExecutableElement method) {
+        TypeElement owner = (TypeElement) method.getEnclosingElement();
+        String packageName = processingEnv.getElementUtils().getPackageOf(method).getQualifiedName().toString();
+        String methodName = method.getSimpleName().toString();
+        String className = method.getAnnotation(HtmlTemplate.class).className();
+        if (className.isEmpty()) {
+            className = Character.toUpperCase(methodName.charAt(0)) + methodName.substring(1) + "Template";
+        }
+        String templateName = owner.getSimpleName() + "." + methodName;
+
+        List<String> slots = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            slots.add(parameter.getSimpleName().toString());
+        }
+        String out = slots.contains("out") ? "output" : "out";
+        String declared = join(slots, "String ", ", ");
+        String passed = join(slots, "", ", ");
+        StringBuilder call = new StringBuilder();
+        for (int i = 0; i < slots.size(); i++) {
+            call.append(i == 0 ? "" : ", ").append("slots[").append(i).append(']');
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import java.io.IOException;\n")
+                .append("import java.io.OutputStream;\n")
+                .append("import org.example.processor.TemplateChunks;\n\n")
+                .append("/**\n")
+                .append(" * Generated by {@code ").append(HtmlTemplateProcessor.class.getName()).append("} from\n")
+                .append(" * {@code ").append(templateName).append("}. Do not edit.\n")
+                .append(" */\n")
+                .append("public final class ").append(className).append(" {\n")
+                .append("    private static final TemplateChunks CHUNKS = TemplateChunks.compile(\"").append(templateName)
+                .append("\", ").append(slots.size()).append(",\n")
+                .append("            slots -> ").append(owner.getQualifiedName()).append('.').append(methodName)
+                .append('(').append(call).append("));\n\n")
+                .append("    private ").append(className).append("() {\n")
+                .append("    }\n\n")
+                .append("    public static String render(").append(declared).append(") {\n")
+                .append("        return CHUNKS.render(").append(passed).append(");\n")
+                .append("    }\n\n")
+                .append("    public static <A extends Appendable> A render(A ").append(out)
+                .append(slots.isEmpty() ? "" : ", ").append(declared).append(") throws IOException {\n")
+                .append("        return CHUNKS.render(").append(out).append(slots.isEmpty() ? "" : ", ").append(passed).append(");\n")
+                .append("    }\n\n")
+                .append("    public static void writeTo(OutputStream ").append(out)
+                .append(slots.isEmpty() ? "" : ", ").append(declared).append(") throws IOException {\n")
+                .append("        CHUNKS.writeTo(").append(out).append(slots.isEmpty() ? "" : ", ").append(passed).append(");\n")
+                .append("    }\n")
+                .append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        Filer filer = processingEnv.getFiler();
+        try (Writer writer = filer.createSourceFile(qualifiedName, method).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write " + qualifiedName + ": " + e.getMessage(), method);
+        }
+    }
+
+    private static String join(List<String> names, String prefix, String separator) {
+        StringBuilder joined = new StringBuilder();
+        for (String name : names) {
+            if (joined.length() > 0) {
+                joined.append(separator);
+            }
+            joined.append(prefix).append(name);
+        }
+        return joined.toString();
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.processor;
+
+import j2html.Config;
+import j2html.rendering.FlatHtml;
+import j2html.tags.DomContent;
+import j2html.utils.TextEscaper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Runtime support for classes generated from {@link HtmlTemplate} methods. The
+ * template is rendered once with a sentinel string in every slot; the output
+ * is then split at the sentinels into constant chunks, kept both as strings
+ * and as UTF-8 bytes. Rendering appends the chunks and escapes only the slot
+ * values, in document order.
+ * <p>
+ * A template is frozen to the {@link Config#global()} settings at the time it
+ * is compiled, which for a generated class is when the class is initialised:
+ * the constant chunks are rendered with that config and the slot values are
+ * escaped with its escaper. Later changes to the global config do not apply.
+ */
+public final class TemplateChunks {
+    private static final char SLOT_START = '\uE000';
+    private static final char SLOT_END = '\uE001';
+    // the '&' reveals whether a slot was escaped, the 's' whether it was transformed
+    private static final String SLOT_MARKER = "&s";
+
+    private final String[] chunks;
+    private final byte[][] chunkBytes;
+    private final int[] slotOrder;
+    private final TextEscaper escaper;
+    private final int length;
+
+    private TemplateChunks(String[] chunks, int[] slotOrder, TextEscaper escaper) {
+        this.chunks = chunks;
+        this.slotOrder = slotOrder;
+        this.escaper = escaper;
+        this.chunkBytes = new byte[chunks.length][];
+        int total = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            chunkBytes[i] = chunks[i].getBytes(StandardCharsets.UTF_8);
+            total += chunks[i].length();
+        }
+        this.length = total;
+    }
+
+    /**
+     * Renders {@code template} with sentinel slot values and splits the result.
+     *
+     * @throws IllegalStateException if a slot value was transformed or written unescaped
+     */
+    public static TemplateChunks compile(String templateName, int slots, Function<String[], ? extends DomContent> template) {
+        String[] sentinels = new String[slots];
+        for (int i = 0; i < slots; i++) {
+            sentinels[i] = SLOT_START + Integer.toString(i) + SLOT_MARKER + SLOT_END;
+        }
+        Config config = Config.global();
+        TextEscaper escaper = config.textEscaper();
+        String escapedMarker = escaper.escape(SLOT_MARKER);
+        String html;
+        try {
+            html = template.apply(sentinels).render(FlatHtml.into(new StringBuilder(), config)).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown: StringBuilder does no I/O
+        }
+
+        List<String> chunks = new ArrayList<>();
+        List<Integer> order = new ArrayList<>();
+        int chunkStart = 0;
+        int start;
+        while ((start = html.indexOf(SLOT_START, chunkStart)) >= 0) {
+            int digits = start + 1;
+            int i = digits;
+            while (i < html.length() && Character.isDigit(html.charAt(i))) {
+                i++;
+            }
+            int end = html.indexOf(SLOT_END, i);
+            if (i == digits || end < 0) {
+                throw new IllegalStateException(templateName + ": a slot value was transformed or truncated");
+            }
+            String marker = html.substring(i, end);
+            if (marker.equals(SLOT_MARKER) && !escapedMarker.equals(SLOT_MARKER)) {
+                throw new IllegalStateException(templateName + ": slot " + html.substring(digits, i)
+                        + " is rendered without escaping (rawHtml?)");
+            }
+            if (!marker.equals(escapedMarker)) {
+                throw new IllegalStateException(templateName + ": slot " + html.substring(digits, i)
+                        + " was transformed before rendering");
+            }
+            chunks.add(html.substring(chunkStart, start));
+            order.add(Integer.parseInt(html.substring(digits, i)));
+            chunkStart = end + 1;
+        }
+        chunks.add(html.substring(chunkStart));
+        int[] slotOrder = new int[order.size()];
+        for (int i = 0; i < slotOrder.length; i++) {
+            slotOrder[i] = order.get(i);
+        }
+        return new TemplateChunks(chunks.toArray(new String[0]), slotOrder, escaper);
+    }
+
+    public String render(String... slots) {
+        StringBuilder out = new StringBuilder(length + 16 * slotOrder.length);
+        try {
+            return render(out, slots).toString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public <A extends Appendable> A render(A out, String... slots) throws IOException {
+        for (int i = 0; i < slotOrder.length; i++) {
+            out.append(chunks[i]).append(escaper.escape(slot(slots, slotOrder[i])));
+        }
+        out.append(chunks[slotOrder.length]);
+        return out;
+    }
+
+    public void writeTo(OutputStream out, String... slots) throws IOException {
+        for (int i = 0; i < slotOrder.length; i++) {
+            out.write(chunkBytes[i]);
+            out.write(escaper.escape(slot(slots, slotOrder[i])).getBytes(StandardCharsets.UTF_8));
+        }
+        out.write(chunkBytes[slotOrder.length]);
+    }
+
+    private static String slot(String[] slots, int index) {
+        String value = slots[index];
+        if (value == null) {
+            throw new NullPointerException("slot " + index + " is null");
+        }
+        return value;
+    }
+
+    /** Number of slot occurrences in the rendered page. */
+    public int slotCount() {
+        return slotOrder.length;
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.processor;
+import j2html.Config;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlTemplateProcessorTest {
+
+    @AfterEach
+    public void restoreEscaper() {
+        Config.textEscaper = Config.defaults().textEscaper();
+    }
+
+    @Test
+    public void testGeneratedTemplateMatchesDsl() {
+        assertEquals(PageTemplates.examplePage("J2HTML Example", "Hello, J2HTML!", "This is an example.").render(),
+                ExamplePageTemplate.render("J2HTML Example", "Hello, J2HTML!", "This is an example."));
+    }
+
+    @Test
+    public void testSlotsAreEscaped() {
+        String name = "<script>alert('x')</script>";
+        String url = "/users?id=1&name=\"x\"";
+        assertEquals(PageTemplates.profile(name, url).render(), ProfileCard.render(name, url));
+    }
+
+    @Test
+    public void testTemplateWithoutSlots() {
+        assertEquals(PageTemplates.pageFooter().render(), PageFooterTemplate.render());
+    }
+
+    @Test
+    public void testRenderToAppendableAndStream() throws IOException {
+        String expected = PageTemplates.profile("Zoë", "/zoë").render();
+        assertEquals(expected, ProfileCard.render(new StringBuilder(), "Zoë", "/zoë").toString());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ProfileCard.writeTo(bytes, "Zoë", "/zoë");
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), bytes.toByteArray());
+    }
+
+    @Test
+    public void testEscaperIsFixedWhenCompiled() {
+        TemplateChunks chunks = TemplateChunks.compile("profile", 2, slots -> PageTemplates.profile(slots[0], slots[1]));
+        String expected = PageTemplates.profile("<b>", "/").render();
+        Config.textEscaper = text -> text;
+        assertEquals(expected, chunks.render("<b>", "/"));
+    }
+
+    @Test
+    public void testRejectsUnescapedSlot() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> TemplateChunks.compile("unescaped", 1, slots -> PageTemplates.unescaped(slots[0])));
+        assertTrue(e.getMessage().contains("without escaping"), e.getMessage());
+    }
+
+    @Test
+    public void testRejectsTransformedSlot() {
+        assertThrows(IllegalStateException.class,
+                () -> TemplateChunks.compile("transformed", 1, slots -> PageTemplates.transformed(slots[0])));
+    }
+
+    @Test
+    public void testRejectsNullSlot() {
+        assertThrows(NullPointerException.class, () -> ProfileCard.render(null, "/"));
+    }
+
+    @Test
+    public void testCountsSlotOccurrences() {
+        TemplateChunks chunks = TemplateChunks.compile("profile", 2, slots -> PageTemplates.profile(slots[0], slots[1]));
+        assertEquals(4, chunks.slotCount());
+    }
+}
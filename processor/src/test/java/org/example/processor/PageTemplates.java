@@ -0,0 +1,43 @@
+package org.example.processor;
+
+import j2html.tags.DomContent;
+import j2html.tags.specialized.HtmlTag;
+
+import static j2html.TagCreator.*;
+
+class PageTemplates {
+
+    @HtmlTemplate
+    static HtmlTag examplePage(String title, String heading, String paragraph) {
+        return html(
+                head(
+                        title(title)
+                ),
+                body(
+                        h1(heading),
+                        p(paragraph)
+                )
+        );
+    }
+
+    @HtmlTemplate(className = "ProfileCard")
+    static DomContent profile(String name, String url) {
+        return div(
+                a(name).withHref(url).withTitle("Profile of " + name),
+                span("Contact " + name)
+        ).withClass("card");
+    }
+
+    @HtmlTemplate
+    static DomContent pageFooter() {
+        return footer(p("© 2024 Example & Co"));
+    }
+
+    static DomContent unescaped(String value) {
+        return div(rawHtml(value));
+    }
+
+    static DomContent transformed(String value) {
+        return div(value.toUpperCase());
+    }
+}
@@ -0,0 +1,128 @@
+package org.example;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Identity, gzip and deflate (zlib, RFC 1950) encodings of one rendered page, compressed
+ * once at maximum level, plus a strong ETag derived from a SHA-256 of the
+ * identity bytes. Each coding gets its own ETag, since the representations
+ * differ byte for byte.
+ */
+public final class CompressedVariants {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Variant identity;
+    private final Variant gzip;
+    private final Variant deflate;
+
+    public CompressedVariants(byte[] identityBytes) {
+        String hash = sha256Prefix(identityBytes);
+        this.identity = new Variant(ContentCoding.IDENTITY, identityBytes, "\"" + hash + "\"");
+        this.gzip = new Variant(ContentCoding.GZIP, gzip(identityBytes), "\"" + hash + "-gzip\"");
+        this.deflate = new Variant(ContentCoding.DEFLATE, deflate(identityBytes), "\"" + hash + "-deflate\"");
+    }
+
+    /** The variant for a request's Accept-Encoding header. */
+    public Variant select(String acceptEncoding) {
+        return variant(ContentCoding.negotiate(acceptEncoding));
+    }
+
+    public Variant variant(ContentCoding coding) {
+        switch (coding) {
+            case GZIP:
+                return gzip;
+            case DEFLATE:
+                return deflate;
+            default:
+                return identity;
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 3 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /** HTTP's deflate coding is the zlib format, not a bare deflate stream. */
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 3 + 32);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+            deflate.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256Prefix(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            char[] hex = new char[32];
+            for (int i = 0; i < 16; i++) {
+                hex[2 * i] = HEX[(digest[i] >> 4) & 0xF];
+                hex[2 * i + 1] = HEX[digest[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required on every Java platform", e);
+        }
+    }
+
+    /** One encoded representation. The byte array is shared and must not be modified. */
+    public static final class Variant {
+        private final ContentCoding coding;
+        private final byte[] bytes;
+        private final String etag;
+
+        Variant(ContentCoding coding, byte[] bytes, String etag) {
+            this.coding = coding;
+            this.bytes = bytes;
+            this.etag = etag;
+        }
+
+        public ContentCoding coding() {
+            return coding;
+        }
+
+        public byte[] bytes() {
+            return bytes;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        /** True when an If-None-Match header lists this variant's ETag (or {@code *}). */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String trimmed = tag.trim();
+                if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Streaming gzip and deflate (zlib, RFC 1950) compression for dynamic pages, reusing
+ * {@link Deflater}s instead of allocating one (and its native zlib state) per
+ * response. Both framings are written around the same raw deflaters, so one
+ * pool serves both codings. Idle deflaters are kept in thread-id-indexed slots like
+ * {@link RenderBufferPool}, so virtual threads share them too. Closing the
+ * returned stream finishes the compressed data, closes the underlying stream
+ * and returns the deflater.
+ */
+public final class CompressingOutput {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int LEVEL = Deflater.DEFAULT_COMPRESSION;
+    private static final AtomicReferenceArray<Deflater> IDLE =
+            new AtomicReferenceArray<>(Runtime.getRuntime().availableProcessors() * 2);
+
+    private CompressingOutput() {
+    }
+
+    /** Wraps {@code out} in the stream for {@code coding}; identity returns {@code out} itself. */
+    public static OutputStream wrap(OutputStream out, ContentCoding coding) throws IOException {
+        switch (coding) {
+            case GZIP:
+                return gzip(out);
+            case DEFLATE:
+                return deflate(out);
+            default:
+                return out;
+        }
+    }
+
+    public static OutputStream gzip(OutputStream out) throws IOException {
+        return new PooledGzipStream(out, acquire());
+    }
+
+    public static OutputStream deflate(OutputStream out) throws IOException {
+        return new PooledZlibStream(out, acquire());
+    }
+
+    private static Deflater acquire() {
+        int start = slot();
+        for (int i = 0; i < 4; i++) {
+            Deflater deflater = IDLE.getAndSet((start + i) % IDLE.length(), null);
+            if (deflater != null) {
+                return deflater;
+            }
+        }
+        return new Deflater(LEVEL, true);
+    }
+
+    private static void release(Deflater deflater) {
+        deflater.reset();
+        int start = slot();
+        for (int i = 0; i < 4; i++) {
+            if (IDLE.compareAndSet((start + i) % IDLE.length(), null, deflater)) {
+                return;
+            }
+        }
+        deflater.end();
+    }
+
+    private static int slot() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id ^ (id >>> 32)) & Integer.MAX_VALUE) % IDLE.length();
+    }
+
+    private abstract static class PooledDeflaterStream extends DeflaterOutputStream {
+        private boolean closed;
+
+        PooledDeflaterStream(OutputStream out, Deflater deflater) {
+            super(out, deflater, BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                finish();
+                writeTrailer();
+                out.close();
+            } finally {
+                release(def);
+            }
+        }
+
+        abstract void writeTrailer() throws IOException;
+    }
+
+    /** zlib framing (RFC 1950) around a raw deflate stream, as HTTP's deflate coding requires. */
+    private static final class PooledZlibStream extends PooledDeflaterStream {
+        // CM 8 with a 32K window, FLEVEL 2 for the default level, FCHECK so the header is a multiple of 31
+        private static final byte[] HEADER = {0x78, (byte) 0x9c};
+        private final Adler32 adler = new Adler32();
+
+        PooledZlibStream(OutputStream out, Deflater deflater) throws IOException {
+            super(out, deflater);
+            out.write(HEADER);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            adler.update(b, off, len);
+        }
+
+        @Override
+        void writeTrailer() throws IOException {
+            int value = (int) adler.getValue();
+            out.write(value >>> 24);
+            out.write((value >> 16) & 0xff);
+            out.write((value >> 8) & 0xff);
+            out.write(value & 0xff);
+        }
+    }
+
+    /** gzip framing (RFC 1952) around a raw deflate stream. */
+    private static final class PooledGzipStream extends PooledDeflaterStream {
+        private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+        private final CRC32 crc = new CRC32();
+
+        PooledGzipStream(OutputStream out, Deflater deflater) throws IOException {
+            super(out, deflater);
+            out.write(HEADER);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+        @Override
+        void writeTrailer() throws IOException {
+            writeInt((int) crc.getValue());
+            writeInt((int) def.getBytesRead());
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.write(value & 0xff);
+            out.write((value >> 8) & 0xff);
+            out.write((value >> 16) & 0xff);
+            out.write((value >> 24) & 0xff);
+        }
+    }
+}
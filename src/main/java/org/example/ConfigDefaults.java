@@ -0,0 +1,41 @@
+package org.example;
+
+import j2html.Config;
+import j2html.utils.EscapeUtil;
+import j2html.utils.Indenter;
+import j2html.utils.TextEscaper;
+
+/**
+ * j2html's built-in escaper and indenter instances, captured when this class
+ * is initialised: those of {@link Config#defaults()} and the initial values of
+ * {@link Config#textEscaper} and {@link Config#indenter}. Classes that special
+ * case the built-ins compare against these by identity. A global value that
+ * was already replaced at capture time is only kept if it behaves like the
+ * built-in on a probe, so a custom escaper or indenter is not mistaken for one.
+ */
+final class ConfigDefaults {
+    private static final String ESCAPE_PROBE = "<a href=\"x\" title='y'>&</a>";
+    private static final TextEscaper DEFAULT_ESCAPER = Config.defaults().textEscaper();
+    private static final TextEscaper GLOBAL_ESCAPER = escaperOrNull(Config.global().textEscaper());
+    private static final Indenter DEFAULT_INDENTER = Config.defaults().indenter();
+    private static final Indenter GLOBAL_INDENTER = indenterOrNull(Config.global().indenter());
+
+    private ConfigDefaults() {
+    }
+
+    static boolean isBuiltIn(TextEscaper escaper) {
+        return escaper != null && (escaper == DEFAULT_ESCAPER || escaper == GLOBAL_ESCAPER);
+    }
+
+    static boolean isBuiltIn(Indenter indenter) {
+        return indenter != null && (indenter == DEFAULT_INDENTER || indenter == GLOBAL_INDENTER);
+    }
+
+    private static TextEscaper escaperOrNull(TextEscaper escaper) {
+        return EscapeUtil.escape(ESCAPE_PROBE).equals(escaper.escape(ESCAPE_PROBE)) ? escaper : null;
+    }
+
+    private static Indenter indenterOrNull(Indenter indenter) {
+        return DEFAULT_INDENTER.indent(2, "x").equals(indenter.indent(2, "x")) ? indenter : null;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example;
+
+import java.util.Locale;
+
+/** HTTP content codings the server can send, with Accept-Encoding negotiation. */
+public enum ContentCoding {
+    IDENTITY(null),
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String headerValue;
+
+    ContentCoding(String headerValue) {
+        this.headerValue = headerValue;
+    }
+
+    /** Value for the Content-Encoding header, or null for identity. */
+    public String headerValue() {
+        return headerValue;
+    }
+
+    /**
+     * Picks the coding with the highest quality in an Accept-Encoding header,
+     * preferring gzip over deflate on ties and falling back to identity.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return IDENTITY;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = quality;
+            } else if (name.equals("deflate")) {
+                deflate = quality;
+            } else if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        // codings not listed take the quality of "*", if present
+        gzip = gzip < 0 ? wildcard : gzip;
+        deflate = deflate < 0 ? wildcard : deflate;
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : IDENTITY;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import j2html.rendering.HtmlBuilder;
+import j2html.rendering.TagBuilder;
+
+import java.io.IOException;
+
+/**
+ * {@link HtmlBuilder} decorator that counts the elements and text nodes
+ * rendered through it. It can be pointed at another builder with
+ * {@link #reset}, so one instance serves many renders.
+ */
+class CountingHtml<T extends Appendable> implements HtmlBuilder<T> {
+    private HtmlBuilder<T> delegate;
+    private int nodes;
+
+    CountingHtml(HtmlBuilder<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    /** Decorates {@code delegate} from now on and starts counting from zero. */
+    CountingHtml<T> reset(HtmlBuilder<T> delegate) {
+        this.delegate = delegate;
+        nodes = 0;
+        return this;
+    }
+
+    int nodeCount() {
+        return nodes;
+    }
+
+    @Override
+    public TagBuilder appendStartTag(String name) throws IOException {
+        nodes++;
+        return delegate.appendStartTag(name);
+    }
+
+    @Override
+    public HtmlBuilder<T> appendEndTag(String name) throws IOException {
+        delegate.appendEndTag(name);
+        return this;
+    }
+
+    @Override
+    public TagBuilder appendEmptyTag(String name) throws IOException {
+        nodes++;
+        return delegate.appendEmptyTag(name);
+    }
+
+    @Override
+    public HtmlBuilder<T> appendEscapedText(String txt) throws IOException {
+        nodes++;
+        delegate.appendEscapedText(txt);
+        return this;
+    }
+
+    @Override
+    public HtmlBuilder<T> appendUnescapedText(String txt) throws IOException {
+        nodes++;
+        delegate.appendUnescapedText(txt);
+        return this;
+    }
+
+    @Override
+    public T output() {
+        return delegate.output();
+    }
+
+    @Override
+    @Deprecated
+    public HtmlBuilder<T> append(CharSequence csq) throws IOException {
+        delegate.append(csq);
+        return this;
+    }
+
+    @Override
+    @Deprecated
+    public HtmlBuilder<T> append(CharSequence csq, int start, int end) throws IOException {
+        delegate.append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    @Deprecated
+    public HtmlBuilder<T> append(char c) throws IOException {
+        delegate.append(c);
+        return this;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example;
+
+import j2html.Config;
+import j2html.utils.EscapeUtil;
+import j2html.utils.TextEscaper;
+
+/**
+ * Drop-in replacement for j2html's {@link EscapeUtil} with identical output.
+ * It scans for the first character that needs escaping and returns the input
+ * unchanged when there is none; otherwise clean runs are copied in bulk and
+ * special characters are replaced from a 128-entry lookup table.
+ */
+public final class FastEscaper implements TextEscaper {
+    public static final FastEscaper INSTANCE = new FastEscaper();
+
+    private static final String[] REPLACEMENTS = new String[128];
+
+    static {
+        REPLACEMENTS['<'] = "&lt;";
+        REPLACEMENTS['>'] = "&gt;";
+        REPLACEMENTS['&'] = "&amp;";
+        REPLACEMENTS['"'] = "&quot;";
+        REPLACEMENTS['\''] = "&#x27;";
+    }
+
+    private FastEscaper() {
+    }
+
+    /** Makes every render that uses {@link Config#global()} escape with this escaper. */
+    public static void useGlobally() {
+        Config.textEscaper = INSTANCE;
+    }
+
+    /** Restores j2html's default escaper for {@link Config#global()}. */
+    public static void useDefault() {
+        Config.textEscaper = Config.defaults().textEscaper();
+    }
+
+    /**
+     * Whether {@code escaper} produces this escaper's output: it is this
+     * escaper or one of j2html's built-in escapers (see {@link ConfigDefaults}).
+     */
+    static boolean isEquivalent(TextEscaper escaper) {
+        return escaper == INSTANCE || ConfigDefaults.isBuiltIn(escaper);
+    }
+
+    public static boolean needsEscaping(char c) {
+        return c < 128 && REPLACEMENTS[c] != null;
+    }
+
+    /** The entity {@code c} is escaped to, or null if it is kept as is; the one table other encoders derive theirs from. */
+    static String replacement(char c) {
+        return c < 128 ? REPLACEMENTS[c] : null;
+    }
+
+    @Override
+    public String escape(String text) {
+        if (text == null) {
+            return null;
+        }
+        int length = text.length();
+        int next = firstToEscape(text, 0, length);
+        if (next == length) {
+            return text;
+        }
+        StringBuilder escaped = new StringBuilder(length + 16);
+        int start = 0;
+        do {
+            escaped.append(text, start, next).append(REPLACEMENTS[text.charAt(next)]);
+            start = next + 1;
+            next = firstToEscape(text, start, length);
+        } while (next < length);
+        return escaped.append(text, start, length).toString();
+    }
+
+    private static int firstToEscape(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < 128 && REPLACEMENTS[c] != null) {
+                return i;
+            }
+        }
+        return to;
+    }
+}
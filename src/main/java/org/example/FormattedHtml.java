@@ -0,0 +1,262 @@
+package org.example;
+
+import j2html.Config;
+import j2html.rendering.HtmlBuilder;
+import j2html.rendering.TagBuilder;
+import j2html.tags.DomContent;
+import j2html.utils.Indenter;
+import j2html.utils.TextEscaper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Drop-in replacement for j2html's {@code IndentedHtml} whose output is
+ * identical to {@code renderFormatted()}, but whose cost per line does not
+ * grow with the nesting depth. IndentedHtml scans its whole element stack on
+ * every call to find enclosing {@code pre}/{@code textarea} elements and
+ * builds a fresh indent string for every line; this builder keeps a depth
+ * counter and a count of open pre/textarea elements, and appends indentation
+ * from a precomputed table. A custom {@link Indenter} is still honoured, only
+ * j2html's default four-space indenter takes the table path.
+ */
+public class FormattedHtml<T extends Appendable> implements HtmlBuilder<T> {
+    private static final int TABLE_SIZE = 64;
+    private static final String[] INDENTS = new String[TABLE_SIZE];
+
+    static {
+        char[] spaces = new char[4 * (TABLE_SIZE - 1)];
+        Arrays.fill(spaces, ' ');
+        for (int level = 0; level < TABLE_SIZE; level++) {
+            INDENTS[level] = new String(spaces, 0, 4 * level);
+        }
+    }
+
+    private final T out;
+    private final Indenter indenter;
+    private final TextEscaper textEscaper;
+    private final TagBuilder enclosingElementAttributes;
+    private final TagBuilder emptyElementAttributes;
+    private String[] trace = new String[16];
+    private int depth;
+    private int selfFormatting;
+
+    public static <T extends Appendable> FormattedHtml<T> into(T out) {
+        return new FormattedHtml<>(out, Config.defaults());
+    }
+
+    public static <T extends Appendable> FormattedHtml<T> into(T out, Config config) {
+        return new FormattedHtml<>(out, config);
+    }
+
+    /** Same as {@code content.renderFormatted()}, for any content rather than only container tags. */
+    public static String render(DomContent content) {
+        try {
+            return content.render(into(new StringBuilder(), Config.global())).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private FormattedHtml(T out, Config config) {
+        this.out = out;
+        this.indenter = isDefault(config.indenter()) ? null : config.indenter();
+        this.textEscaper = config.textEscaper();
+        this.enclosingElementAttributes = new FormattedTagBuilder(false);
+        this.emptyElementAttributes = new FormattedTagBuilder(config.closeEmptyTags());
+    }
+
+    /** Whether {@code indenter} is one of j2html's built-in four-space indenters. */
+    static boolean isDefault(Indenter indenter) {
+        return ConfigDefaults.isBuiltIn(indenter);
+    }
+
+    private static boolean isSelfFormatting(String name) {
+        return "pre".equals(name) || "textarea".equals(name);
+    }
+
+    private void indent() throws IOException {
+        if (indenter != null) {
+            out.append(indenter.indent(depth, ""));
+            return;
+        }
+        int level = depth;
+        while (level >= TABLE_SIZE) {
+            out.append(INDENTS[TABLE_SIZE - 1]);
+            level -= TABLE_SIZE - 1;
+        }
+        out.append(INDENTS[level]);
+    }
+
+    private void appendLine(String txt, int start, int end) throws IOException {
+        if (indenter != null) {
+            out.append(indenter.indent(depth, txt.substring(start, end)));
+        } else {
+            indent();
+            out.append(txt, start, end);
+        }
+        out.append('\n');
+    }
+
+    @Override
+    public TagBuilder appendStartTag(String name) throws IOException {
+        if (selfFormatting == 0) {
+            indent();
+        }
+        if (depth == trace.length) {
+            trace = Arrays.copyOf(trace, depth * 2);
+        }
+        trace[depth++] = name;
+        if (isSelfFormatting(name)) {
+            selfFormatting++;
+        }
+        out.append('<').append(name);
+        return enclosingElementAttributes;
+    }
+
+    @Override
+    public HtmlBuilder<T> appendEndTag(String name) throws IOException {
+        String open = depth == 0 ? null : trace[depth - 1];
+        if (!name.equals(open)) {
+            throw new RuntimeException("Incorrect element closed: " + name + ".  Expected: " + open);
+        }
+        boolean wasSelfFormatting = selfFormatting > 0;
+        trace[--depth] = null;
+        if (isSelfFormatting(name)) {
+            selfFormatting--;
+        }
+        if (!wasSelfFormatting) {
+            indent();
+        }
+        out.append("</").append(name).append('>');
+        if (selfFormatting == 0) {
+            out.append('\n');
+        }
+        return this;
+    }
+
+    @Override
+    public TagBuilder appendEmptyTag(String name) throws IOException {
+        if (selfFormatting == 0) {
+            indent();
+        }
+        out.append('<').append(name);
+        return emptyElementAttributes;
+    }
+
+    /** Indents each line like IndentedHtml's {@code txt.split("\n")}, which drops trailing empty lines. */
+    private void appendLines(String txt) throws IOException {
+        if (selfFormatting > 0) {
+            out.append(txt);
+            return;
+        }
+        int end = txt.length();
+        while (end > 0 && txt.charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end == 0) {
+            if (txt.isEmpty()) {
+                appendLine(txt, 0, 0);
+            }
+            return;
+        }
+        int start = 0;
+        for (int newline = txt.indexOf('\n'); newline >= 0 && newline < end; newline = txt.indexOf('\n', start)) {
+            appendLine(txt, start, newline);
+            start = newline + 1;
+        }
+        appendLine(txt, start, end);
+    }
+
+    @Override
+    public HtmlBuilder<T> appendEscapedText(String txt) throws IOException {
+        appendLines(textEscaper.escape(txt));
+        return this;
+    }
+
+    @Override
+    public HtmlBuilder<T> appendUnescapedText(String txt) throws IOException {
+        appendLines(txt);
+        return this;
+    }
+
+    @Override
+    public T output() {
+        return out;
+    }
+
+    @Override
+    @Deprecated
+    public HtmlBuilder<T> append(CharSequence csq) throws IOException {
+        out.append(csq);
+        return this;
+    }
+
+    @Override
+    @Deprecated
+    public HtmlBuilder<T> append(CharSequence csq, int start, int end) throws IOException {
+        out.append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    @Deprecated
+    public HtmlBuilder<T> append(char c) throws IOException {
+        out.append(c);
+        return this;
+    }
+
+    private class FormattedTagBuilder implements TagBuilder {
+        private final boolean closeTag;
+
+        private FormattedTagBuilder(boolean closeTag) {
+            this.closeTag = closeTag;
+        }
+
+        @Override
+        public TagBuilder appendAttribute(String name, String value) throws IOException {
+            out.append(' ').append(name).append("=\"").append(textEscaper.escape(value)).append('"');
+            return this;
+        }
+
+        @Override
+        public TagBuilder appendBooleanAttribute(String name) throws IOException {
+            out.append(' ').append(name);
+            return this;
+        }
+
+        @Override
+        public HtmlBuilder<T> completeTag() throws IOException {
+            if (closeTag) {
+                out.append('/');
+            }
+            out.append('>');
+            if (selfFormatting == 0) {
+                out.append('\n');
+            }
+            return FormattedHtml.this;
+        }
+
+        @Override
+        @Deprecated
+        public TagBuilder append(CharSequence csq) throws IOException {
+            out.append(csq);
+            return this;
+        }
+
+        @Override
+        @Deprecated
+        public TagBuilder append(CharSequence csq, int start, int end) throws IOException {
+            out.append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        @Deprecated
+        public TagBuilder append(char c) throws IOException {
+            out.append(c);
+            return this;
+        }
+    }
+}
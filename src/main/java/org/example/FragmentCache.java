@@ -0,0 +1,258 @@
+package org.example;
+
+import j2html.tags.DomContent;
+import j2html.tags.UnescapedText;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static j2html.TagCreator.rawHtml;
+
+/**
+ * Size-bounded cache of pre-rendered HTML fragments such as navigation lists,
+ * head blocks or footers. Entries are keyed by a component id plus the model
+ * the fragment was built from, and are handed back as {@link UnescapedText} so
+ * they drop into j2html trees without being escaped again.
+ * <p>
+ * Lookups never lock: fragments sit in a {@link ConcurrentHashMap} and a hit
+ * only stamps the entry with a logical access time, which hot entries skip
+ * while their stamp is still recent. When a miss pushes the cached length over
+ * the budget, the least recently stamped entries are evicted down to seven
+ * eighths of it, so eviction is an approximation of LRU that runs once per
+ * batch of inserts rather than on every one. Eviction does not sort: it takes
+ * a snapshot of the stamps, buckets it by age and evicts the oldest buckets,
+ * in one linear pass. Fragments are rendered outside any lock; two threads
+ * missing on the same key may both render it.
+ */
+public class FragmentCache {
+    private static final int AGE_BUCKETS = 64;
+
+    private final long maxChars;
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong weight = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // hits restamp an entry only once this many newer stamps were handed out
+    private volatile long restampDistance;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** @param maxChars total length of cached HTML to keep before evicting */
+    public FragmentCache(long maxChars) {
+        if (maxChars < 1) {
+            throw new IllegalArgumentException("maxChars must be positive: " + maxChars);
+        }
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * Returns the cached fragment for {@code componentId} and {@code model},
+     * rendering {@code fragment} on a miss. The model must implement
+     * {@code equals} and {@code hashCode} over everything the fragment shows.
+     * Fragments larger than the whole budget are rendered but not cached.
+     */
+    public UnescapedText get(String componentId, Object model, Supplier<? extends DomContent> fragment) {
+        Key key = new Key(componentId, model);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isCurrent(epoch.get())) {
+            touch(entry);
+            hits.increment();
+            return rawHtml(entry.html);
+        }
+        misses.increment();
+        AtomicLong version = versions.computeIfAbsent(componentId, id -> new AtomicLong());
+        // read before rendering, so an invalidate() during the render makes the result stale
+        long renderedVersion = version.get();
+        long renderedEpoch = epoch.get();
+        String html = fragment.get().render();
+        if (html.length() <= maxChars) {
+            insert(key, new Entry(html, version, renderedVersion, renderedEpoch, clock.incrementAndGet()));
+        }
+        return rawHtml(html);
+    }
+
+    /** Drops every cached fragment of the given component. */
+    public void invalidate(String componentId) {
+        AtomicLong version = versions.get(componentId);
+        if (version == null) {
+            return;
+        }
+        version.incrementAndGet();
+        for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+            if (entry.getKey().componentId.equals(componentId)) {
+                remove(entry);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+            remove(entry);
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Total length of the cached HTML. */
+    public long weightedSize() {
+        return weight.get();
+    }
+
+    private void touch(Entry entry) {
+        long now = clock.get();
+        if (now - entry.lastAccess > restampDistance) {
+            entry.lastAccess = clock.incrementAndGet();
+        }
+    }
+
+    private void insert(Key key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        weight.addAndGet(entry.html.length() - (previous == null ? 0 : previous.html.length()));
+        if (!entry.isCurrent(epoch.get())) {
+            // invalidated while rendering
+            remove(key, entry);
+            return;
+        }
+        restampDistance = entries.size() >> 3;
+        if (weight.get() > maxChars) {
+            evict();
+        }
+    }
+
+    private boolean remove(Map.Entry<Key, Entry> entry) {
+        return remove(entry.getKey(), entry.getValue());
+    }
+
+    private boolean remove(Key key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            weight.addAndGet(-entry.html.length());
+            return true;
+        }
+        return false;
+    }
+
+    private void evict() {
+        evictionLock.lock();
+        try {
+            if (weight.get() <= maxChars) {
+                return;
+            }
+            // hits keep restamping entries on other threads, so work on a snapshot of the stamps
+            List<Map.Entry<Key, Entry>> candidates = new ArrayList<>(entries.entrySet());
+            int count = candidates.size();
+            long[] stamps = new long[count];
+            long oldest = Long.MAX_VALUE;
+            long newest = Long.MIN_VALUE;
+            for (int i = 0; i < count; i++) {
+                long stamp = candidates.get(i).getValue().lastAccess;
+                stamps[i] = stamp;
+                oldest = Math.min(oldest, stamp);
+                newest = Math.max(newest, stamp);
+            }
+            long bucketWidth = (newest - oldest) / AGE_BUCKETS + 1;
+            int[] buckets = new int[count];
+            long[] bucketWeights = new long[AGE_BUCKETS];
+            for (int i = 0; i < count; i++) {
+                buckets[i] = (int) ((stamps[i] - oldest) / bucketWidth);
+                bucketWeights[buckets[i]] += candidates.get(i).getValue().html.length();
+            }
+            long target = maxChars - (maxChars >> 3);
+            long excess = weight.get() - target;
+            // every bucket older than the cutoff goes; the cutoff bucket only as far as needed
+            int cutoff = 0;
+            for (long freed = 0; cutoff < AGE_BUCKETS - 1 && freed + bucketWeights[cutoff] < excess; cutoff++) {
+                freed += bucketWeights[cutoff];
+            }
+            int evicted = 0;
+            for (int i = 0; i < count; i++) {
+                if (buckets[i] < cutoff && remove(candidates.get(i))) {
+                    evicted++;
+                }
+            }
+            for (int i = 0; i < count && weight.get() > target; i++) {
+                if (buckets[i] == cutoff && remove(candidates.get(i))) {
+                    evicted++;
+                }
+            }
+            evictions.add(evicted);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Key {
+        private final String componentId;
+        private final Object model;
+        private final int hash;
+
+        private Key(String componentId, Object model) {
+            this.componentId = Objects.requireNonNull(componentId, "componentId");
+            this.model = model;
+            this.hash = 31 * componentId.hashCode() + Objects.hashCode(model);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && componentId.equals(other.componentId) && Objects.equals(model, other.model);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final String html;
+        private final AtomicLong componentVersion;
+        private final long version;
+        private final long epoch;
+        private volatile long lastAccess;
+
+        private Entry(String html, AtomicLong componentVersion, long version, long epoch, long lastAccess) {
+            this.html = html;
+            this.componentVersion = componentVersion;
+            this.version = version;
+            this.epoch = epoch;
+            this.lastAccess = lastAccess;
+        }
+
+        /** False once its component or the whole cache was invalidated after it was rendered. */
+        boolean isCurrent(long currentEpoch) {
+            return epoch == currentEpoch && version == componentVersion.get();
+        }
+    }
+}
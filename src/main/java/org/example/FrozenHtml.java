@@ -0,0 +1,445 @@
+package org.example;
+
+import j2html.Config;
+import j2html.rendering.FlatHtml;
+import j2html.rendering.HtmlBuilder;
+import j2html.rendering.TagBuilder;
+import j2html.tags.DomContent;
+import j2html.utils.TextEscaper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable snapshot of a j2html tree. j2html tags are mutable builders, so a
+ * prebuilt tree cannot be shared between request threads; a frozen copy can.
+ * Its rendered form is computed once per config and cached: {@link #render()},
+ * {@link #render(Config)}, {@link #renderInto(Appendable, Config)} and
+ * rendering into a {@link Utf8Html} append the cached markup instead of
+ * walking the tree again. Other builders keep their settings to themselves,
+ * so rendering into them walks the tree.
+ * <p>
+ * The {@code with...} methods return derived trees. They copy only the nodes
+ * on the path to the change and share every other subtree with the original.
+ */
+public final class FrozenHtml extends DomContent {
+    private static final byte ELEMENT = 0;
+    private static final byte EMPTY_ELEMENT = 1;
+    private static final byte TEXT = 2;
+    private static final byte RAW = 3;
+    private static final byte FRAGMENT = 4;
+
+    private static final String[] NO_ATTRIBUTES = {};
+    private static final FrozenHtml[] NO_CHILDREN = {};
+
+    private final byte kind;
+    /** Tag name for elements, content for text nodes, {@code null} for fragments. */
+    private final String value;
+    /** Name/value pairs; a {@code null} value is a boolean attribute. */
+    private final String[] attributes;
+    private final FrozenHtml[] children;
+    private volatile Rendered rendered;
+
+    private FrozenHtml(byte kind, String value, String[] attributes, FrozenHtml[] children) {
+        this.kind = kind;
+        this.value = value;
+        this.attributes = attributes;
+        this.children = children;
+    }
+
+    /**
+     * Returns an immutable copy of {@code tree}. Later changes to {@code tree}
+     * do not affect the copy. Freezing a frozen tree returns it unchanged.
+     */
+    public static FrozenHtml freeze(DomContent tree) {
+        Objects.requireNonNull(tree, "tree");
+        if (tree instanceof FrozenHtml) {
+            return (FrozenHtml) tree;
+        }
+        try {
+            return tree.render(new Recorder()).result();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FrozenHtml fragment(FrozenHtml[] children) {
+        return new FrozenHtml(FRAGMENT, null, NO_ATTRIBUTES, children);
+    }
+
+    /** Tag name of this element, {@code null} for text and fragments. */
+    public String tagName() {
+        return kind == ELEMENT || kind == EMPTY_ELEMENT ? value : null;
+    }
+
+    /** Value of the attribute, {@code null} if absent or a boolean attribute. */
+    public String attribute(String name) {
+        int index = indexOfAttribute(name);
+        return index < 0 ? null : attributes[index + 1];
+    }
+
+    public boolean hasAttribute(String name) {
+        return indexOfAttribute(name) >= 0;
+    }
+
+    public int childCount() {
+        return children.length;
+    }
+
+    public FrozenHtml child(int index) {
+        return children[index];
+    }
+
+    private int indexOfAttribute(String name) {
+        for (int i = 0; i < attributes.length; i += 2) {
+            if (attributes[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void requireElement() {
+        if (kind != ELEMENT && kind != EMPTY_ELEMENT) {
+            throw new IllegalStateException("not an element");
+        }
+    }
+
+    /**
+     * Returns a copy of this element with the attribute set, in place if it
+     * already exists. A {@code null} value makes it a boolean attribute.
+     */
+    public FrozenHtml withAttribute(String name, String attributeValue) {
+        requireElement();
+        Objects.requireNonNull(name, "name");
+        int index = indexOfAttribute(name);
+        String[] copy;
+        if (index >= 0) {
+            if (Objects.equals(attributes[index + 1], attributeValue)) {
+                return this;
+            }
+            copy = attributes.clone();
+        } else {
+            copy = Arrays.copyOf(attributes, attributes.length + 2);
+            index = attributes.length;
+            copy[index] = name;
+        }
+        copy[index + 1] = attributeValue;
+        return new FrozenHtml(kind, value, copy, children);
+    }
+
+    public FrozenHtml withoutAttribute(String name) {
+        requireElement();
+        int index = indexOfAttribute(name);
+        if (index < 0) {
+            return this;
+        }
+        String[] copy = new String[attributes.length - 2];
+        System.arraycopy(attributes, 0, copy, 0, index);
+        System.arraycopy(attributes, index + 2, copy, index, copy.length - index);
+        return new FrozenHtml(kind, value, copy, children);
+    }
+
+    /** Returns a copy with the child at {@code index} replaced. */
+    public FrozenHtml withChild(int index, DomContent child) {
+        requireContainer();
+        FrozenHtml frozen = freeze(child);
+        if (children[index] == frozen) {
+            return this;
+        }
+        FrozenHtml[] copy = children.clone();
+        copy[index] = frozen;
+        return new FrozenHtml(kind, value, attributes, copy);
+    }
+
+    /** Returns a copy with {@code child} added after the existing children. */
+    public FrozenHtml withAppended(DomContent child) {
+        requireContainer();
+        FrozenHtml[] copy = Arrays.copyOf(children, children.length + 1);
+        copy[children.length] = freeze(child);
+        return new FrozenHtml(kind, value, attributes, copy);
+    }
+
+    private void requireContainer() {
+        if (kind != ELEMENT && kind != FRAGMENT) {
+            throw new IllegalStateException("cannot have children");
+        }
+    }
+
+    /**
+     * Returns a copy in which the first element with the given {@code id}
+     * (depth first, document order) is replaced by {@code update} applied to
+     * it, or this tree if there is no such element.
+     */
+    public FrozenHtml withUpdatedById(String id, UnaryOperator<FrozenHtml> update) {
+        Objects.requireNonNull(id, "id");
+        FrozenHtml updated = updateById(id, update);
+        return updated == null ? this : updated;
+    }
+
+    /** Returns the updated copy, or {@code null} if {@code id} is not in this subtree. */
+    private FrozenHtml updateById(String id, UnaryOperator<FrozenHtml> update) {
+        if (id.equals(attribute("id"))) {
+            return Objects.requireNonNull(update.apply(this), "update result");
+        }
+        for (int i = 0; i < children.length; i++) {
+            FrozenHtml updated = children[i].updateById(id, update);
+            if (updated != null) {
+                if (updated == children[i]) {
+                    return this;
+                }
+                FrozenHtml[] copy = children.clone();
+                copy[i] = updated;
+                return new FrozenHtml(kind, value, attributes, copy);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public <T extends Appendable> T render(HtmlBuilder<T> builder, Object model) throws IOException {
+        if (builder instanceof Recorder) {
+            // Frozen subtrees inside a tree being frozen are shared, not copied
+            ((Recorder) builder).add(this);
+            return builder.output();
+        }
+        if (builder instanceof Utf8Html) {
+            Utf8Html utf8 = (Utf8Html) builder;
+            utf8.appendUnescapedText(rendered(utf8.textEscaper(), utf8.closesEmptyTags()));
+            return builder.output();
+        }
+        write(builder);
+        return builder.output();
+    }
+
+    /** Appends the markup {@code config} renders this tree to, from the cache. */
+    public <A extends Appendable> A renderInto(A out, Config config) throws IOException {
+        out.append(render(config));
+        return out;
+    }
+
+    private void write(HtmlBuilder<?> builder) throws IOException {
+        switch (kind) {
+            case ELEMENT:
+                appendAttributes(builder.appendStartTag(value));
+                for (FrozenHtml child : children) {
+                    child.write(builder);
+                }
+                builder.appendEndTag(value);
+                break;
+            case EMPTY_ELEMENT:
+                appendAttributes(builder.appendEmptyTag(value));
+                break;
+            case TEXT:
+                builder.appendEscapedText(value);
+                break;
+            case RAW:
+                builder.appendUnescapedText(value);
+                break;
+            default:
+                for (FrozenHtml child : children) {
+                    child.write(builder);
+                }
+        }
+    }
+
+    private void appendAttributes(TagBuilder tag) throws IOException {
+        for (int i = 0; i < attributes.length; i += 2) {
+            if (attributes[i + 1] == null) {
+                tag.appendBooleanAttribute(attributes[i]);
+            } else {
+                tag.appendAttribute(attributes[i], attributes[i + 1]);
+            }
+        }
+        tag.completeTag();
+    }
+
+    /**
+     * Returns the cached rendering. It is recomputed only if the global
+     * escaper or empty-tag setting has changed since it was cached.
+     */
+    @Override
+    public String render() {
+        return rendered(Config.textEscaper, Config.closeEmptyTags);
+    }
+
+    /** The markup {@code config} renders this tree to, cached like {@link #render()}. */
+    public String render(Config config) {
+        return rendered(config.textEscaper(), config.closeEmptyTags());
+    }
+
+    /** The markup for the given settings, cached for the settings last asked for. */
+    private String rendered(TextEscaper escaper, boolean closeEmptyTags) {
+        Rendered cached = rendered;
+        if (cached == null || cached.escaper != escaper || cached.closeEmptyTags != closeEmptyTags) {
+            Config config = Config.global().withTextEscaper(escaper).withEmptyTagsClosed(closeEmptyTags);
+            StringBuilder html = new StringBuilder();
+            try {
+                write(FlatHtml.into(html, config));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            cached = new Rendered(html.toString(), escaper, closeEmptyTags);
+            rendered = cached;
+        }
+        return cached.html;
+    }
+
+    @Override
+    @Deprecated
+    public void render(Appendable writer) throws IOException {
+        if (writer instanceof HtmlBuilder) {
+            render((HtmlBuilder<?>) writer);
+        } else {
+            writer.append(render());
+        }
+    }
+
+    private static final class Rendered {
+        final String html;
+        final TextEscaper escaper;
+        final boolean closeEmptyTags;
+
+        Rendered(String html, TextEscaper escaper, boolean closeEmptyTags) {
+            this.html = html;
+            this.escaper = escaper;
+            this.closeEmptyTags = closeEmptyTags;
+        }
+    }
+
+    /**
+     * Builds frozen nodes from the calls a tree makes while rendering, or
+     * from the events of an {@link HtmlFragmentReader}. The children of all
+     * open elements share one stack and the pending tag's attributes one
+     * scratch array, so each element costs only its node and its two arrays.
+     */
+    static final class Recorder implements HtmlBuilder<Recorder>, TagBuilder {
+        private FrozenHtml[] nodes = new FrozenHtml[64];
+        private int nodeCount;
+        private String[] openNames = new String[16];
+        private String[][] openAttributes = new String[16][];
+        /** Where the children of each open element start in {@link #nodes}. */
+        private int[] childrenStart = new int[16];
+        private int depth;
+        private String pendingName;
+        private boolean pendingEmpty;
+        private String[] pendingAttributes = new String[16];
+        private int pendingAttributeCount;
+
+        /** The recorded tree; a fragment unless exactly one top-level node was recorded. */
+        FrozenHtml result() {
+            return nodeCount == 1 ? nodes[0] : fragment(Arrays.copyOf(nodes, nodeCount));
+        }
+
+        void add(FrozenHtml node) {
+            if (nodeCount == nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodeCount * 2);
+            }
+            nodes[nodeCount++] = node;
+        }
+
+        @Override
+        public TagBuilder appendStartTag(String name) {
+            pendingName = name;
+            pendingEmpty = false;
+            pendingAttributeCount = 0;
+            return this;
+        }
+
+        @Override
+        public TagBuilder appendEmptyTag(String name) {
+            pendingName = name;
+            pendingEmpty = true;
+            pendingAttributeCount = 0;
+            return this;
+        }
+
+        @Override
+        public TagBuilder appendAttribute(String name, String attributeValue) {
+            if (pendingAttributeCount + 2 > pendingAttributes.length) {
+                pendingAttributes = Arrays.copyOf(pendingAttributes, pendingAttributes.length * 2);
+            }
+            pendingAttributes[pendingAttributeCount++] = name;
+            pendingAttributes[pendingAttributeCount++] = attributeValue;
+            return this;
+        }
+
+        @Override
+        public TagBuilder appendBooleanAttribute(String name) {
+            return appendAttribute(name, null);
+        }
+
+        @Override
+        public HtmlBuilder<Recorder> completeTag() {
+            String[] attributes = pendingAttributeCount == 0
+                    ? NO_ATTRIBUTES : Arrays.copyOf(pendingAttributes, pendingAttributeCount);
+            if (pendingEmpty) {
+                add(new FrozenHtml(EMPTY_ELEMENT, pendingName, attributes, NO_CHILDREN));
+            } else {
+                if (depth == openNames.length) {
+                    openNames = Arrays.copyOf(openNames, depth * 2);
+                    openAttributes = Arrays.copyOf(openAttributes, depth * 2);
+                    childrenStart = Arrays.copyOf(childrenStart, depth * 2);
+                }
+                openNames[depth] = pendingName;
+                openAttributes[depth] = attributes;
+                childrenStart[depth] = nodeCount;
+                depth++;
+            }
+            pendingName = null;
+            return this;
+        }
+
+        @Override
+        public HtmlBuilder<Recorder> appendEndTag(String name) {
+            depth--;
+            int start = childrenStart[depth];
+            FrozenHtml[] children = nodeCount == start ? NO_CHILDREN : Arrays.copyOfRange(nodes, start, nodeCount);
+            Arrays.fill(nodes, start, nodeCount, null);
+            nodeCount = start;
+            add(new FrozenHtml(ELEMENT, openNames[depth], openAttributes[depth], children));
+            openNames[depth] = null;
+            openAttributes[depth] = null;
+            return this;
+        }
+
+        @Override
+        public HtmlBuilder<Recorder> appendEscapedText(String txt) {
+            add(new FrozenHtml(TEXT, txt, NO_ATTRIBUTES, NO_CHILDREN));
+            return this;
+        }
+
+        @Override
+        public HtmlBuilder<Recorder> appendUnescapedText(String txt) {
+            add(new FrozenHtml(RAW, txt, NO_ATTRIBUTES, NO_CHILDREN));
+            return this;
+        }
+
+        @Override
+        public Recorder output() {
+            return this;
+        }
+
+        @Override
+        @Deprecated
+        public Recorder append(CharSequence csq) {
+            appendUnescapedText(String.valueOf(csq));
+            return this;
+        }
+
+        @Override
+        @Deprecated
+        public Recorder append(CharSequence csq, int start, int end) {
+            return append(String.valueOf(csq).subSequence(start, end));
+        }
+
+        @Override
+        @Deprecated
+        public Recorder append(char c) {
+            return append(String.valueOf(c));
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package org.example;
+
+import j2html.rendering.HtmlBuilder;
+import j2html.rendering.TagBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Single-pass reader for markup produced by j2html. It reports what it reads
+ * as {@link HtmlBuilder} calls, SAX style, so the events can go straight into
+ * any builder: into {@code FlatHtml} they reproduce the input, and
+ * {@link #parse} collects them into a {@link FrozenHtml} tree that can be
+ * patched and rendered again, e.g. for stored markup whose model is gone.
+ * <p>
+ * Text and attribute values are unescaped and reported as escaped text, so
+ * the builder escapes them again. Text that j2html would not have produced
+ * as is, such as output of {@code rawHtml} containing {@code >} or other
+ * entities, is reported as unescaped text to keep it byte-for-byte, as are
+ * comments and the doctype. Attribute values are decoded as a browser would,
+ * including every HTML5 named reference, so {@code title="&copy;"} is read
+ * as {@code title="©"} and written back that way. Void elements such as
+ * {@code <br>} and tags closed with {@code />} become empty tags. Unmatched
+ * end tags are kept as text, and elements still open at the end of the input
+ * are closed.
+ */
+public final class HtmlFragmentReader {
+    private static final String[] ENTITIES = {"&lt;", "&gt;", "&amp;", "&quot;", "&#x27;"};
+    private static final char[] DECODED = {'<', '>', '&', '"', '\''};
+    private static final int NAME_CACHE_SIZE = 512;
+    // Racy but safe: Strings are immutable, a lost update only costs a substring
+    private static final String[] NAME_CACHE = new String[NAME_CACHE_SIZE];
+
+    private final String html;
+    private final HtmlBuilder<?> out;
+    private final List<String> open = new ArrayList<>();
+    private final List<String> attributeNames = new ArrayList<>();
+    private final List<String> attributeValues = new ArrayList<>();
+    /** Reused for decoded text and attribute values. */
+    private char[] decoded = new char[64];
+    /** What the last reference read by {@link #namedReference} or {@link #numericReference} stands for. */
+    private String reference;
+    private int pos;
+
+    private HtmlFragmentReader(String html, HtmlBuilder<?> out) {
+        this.html = html;
+        this.out = out;
+    }
+
+    /** Reads {@code html} into a frozen tree; several top-level nodes become a fragment. */
+    public static FrozenHtml parse(CharSequence html) {
+        return read(html, new FrozenHtml.Recorder()).result();
+    }
+
+    /** Reports {@code html} to {@code out} and returns its output. */
+    public static <T extends Appendable> T read(CharSequence html, HtmlBuilder<T> out) {
+        try {
+            new HtmlFragmentReader(html.toString(), out).read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.output();
+    }
+
+    private void read() throws IOException {
+        int length = html.length();
+        int textStart = 0;
+        while (pos < length) {
+            int lt = html.indexOf('<', pos);
+            if (lt < 0 || lt + 1 >= length) {
+                break;
+            }
+            char next = html.charAt(lt + 1);
+            if (isNameStart(next) || next == '/' || next == '!' || next == '?') {
+                text(textStart, lt);
+                pos = lt;
+                if (!markup()) {
+                    // Not a complete tag: leave it to the text that follows
+                    pos = lt + 1;
+                    textStart = lt;
+                    continue;
+                }
+                textStart = pos;
+            } else {
+                pos = lt + 1;
+            }
+        }
+        text(textStart, length);
+        for (int i = open.size() - 1; i >= 0; i--) {
+            out.appendEndTag(open.remove(i));
+        }
+    }
+
+    /** Reads the markup at {@code pos}; returns false, leaving {@code pos}, if it is incomplete. */
+    private boolean markup() throws IOException {
+        char next = html.charAt(pos + 1);
+        if (next == '!' || next == '?') {
+            int end = html.startsWith("<!--", pos) ? html.indexOf("-->", pos + 4) : html.indexOf('>', pos);
+            if (end < 0) {
+                return false;
+            }
+            end += html.startsWith("<!--", pos) ? 3 : 1;
+            out.appendUnescapedText(html.substring(pos, end));
+            pos = end;
+            return true;
+        }
+        if (next == '/') {
+            return endTag();
+        }
+        return startTag();
+    }
+
+    private boolean endTag() throws IOException {
+        int nameStart = pos + 2;
+        int nameEnd = nameEnd(nameStart);
+        int gt = html.indexOf('>', nameEnd);
+        if (nameEnd == nameStart || gt < 0) {
+            return false;
+        }
+        int depth = open.size() - 1;
+        String name = depth >= 0 ? open.get(depth) : null;
+        if (name == null || !matches(nameStart, nameEnd, name)) {
+            name = name(nameStart, nameEnd);
+            depth = open.lastIndexOf(name);
+        }
+        if (depth < 0) {
+            out.appendUnescapedText(html.substring(pos, gt + 1));
+        } else {
+            for (int i = open.size() - 1; i >= depth; i--) {
+                out.appendEndTag(open.remove(i));
+            }
+        }
+        pos = gt + 1;
+        return true;
+    }
+
+    private boolean startTag() throws IOException {
+        int length = html.length();
+        int nameStart = pos + 1;
+        int i = nameEnd(nameStart);
+        String name = name(nameStart, i);
+        attributeNames.clear();
+        attributeValues.clear();
+        boolean selfClosing = false;
+        while (true) {
+            while (i < length && isSpace(html.charAt(i))) {
+                i++;
+            }
+            if (i >= length) {
+                return false;
+            }
+            char c = html.charAt(i);
+            if (c == '>') {
+                i++;
+                break;
+            }
+            if (c == '/') {
+                if (i + 1 < length && html.charAt(i + 1) == '>') {
+                    selfClosing = true;
+                    i += 2;
+                    break;
+                }
+                i++;
+                continue;
+            }
+            int attributeStart = i;
+            while (i < length && (c = html.charAt(i)) != '=' && c != '>' && c != '/' && !isSpace(c)) {
+                i++;
+            }
+            String attribute = name(attributeStart, i);
+            int afterName = i;
+            while (i < length && isSpace(html.charAt(i))) {
+                i++;
+            }
+            if (i < length && html.charAt(i) == '=') {
+                i++;
+                while (i < length && isSpace(html.charAt(i))) {
+                    i++;
+                }
+                if (i >= length) {
+                    return false;
+                }
+                char quote = html.charAt(i);
+                int valueStart;
+                int valueEnd;
+                if (quote == '"' || quote == '\'') {
+                    valueStart = i + 1;
+                    valueEnd = html.indexOf(quote, valueStart);
+                    if (valueEnd < 0) {
+                        return false;
+                    }
+                    i = valueEnd + 1;
+                } else {
+                    valueStart = i;
+                    while (i < length && (c = html.charAt(i)) != '>' && !isSpace(c)) {
+                        i++;
+                    }
+                    valueEnd = i;
+                }
+                attributeNames.add(attribute);
+                attributeValues.add(attributeValue(valueStart, valueEnd));
+            } else {
+                i = afterName;
+                attributeNames.add(attribute);
+                attributeValues.add(null);
+            }
+        }
+
+        boolean empty = selfClosing || isVoid(name);
+        TagBuilder tag = empty ? out.appendEmptyTag(name) : out.appendStartTag(name);
+        for (int a = 0; a < attributeNames.size(); a++) {
+            String value = attributeValues.get(a);
+            if (value == null) {
+                tag.appendBooleanAttribute(attributeNames.get(a));
+            } else {
+                tag.appendAttribute(attributeNames.get(a), value);
+            }
+        }
+        tag.completeTag();
+        pos = i;
+        if (!empty) {
+            open.add(name);
+            if (name.equalsIgnoreCase("script") || name.equalsIgnoreCase("style")) {
+                rawTextElement(name);
+            }
+        }
+        return true;
+    }
+
+    /** Script and style content runs to the matching end tag; a nested '<' is just text. */
+    private void rawTextElement(String name) throws IOException {
+        int end = pos;
+        while ((end = html.indexOf("</", end)) >= 0) {
+            if (html.regionMatches(true, end + 2, name, 0, name.length())) {
+                break;
+            }
+            end += 2;
+        }
+        if (end < 0) {
+            end = html.length();
+        }
+        text(pos, end);
+        pos = end;
+    }
+
+    private int nameEnd(int start) {
+        int i = start;
+        int length = html.length();
+        char c;
+        while (i < length && (c = html.charAt(i)) != '>' && c != '/' && !isSpace(c)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+    }
+
+    private static boolean isNameStart(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isVoid(String name) {
+        switch (name) {
+            case "area": case "base": case "br": case "col": case "embed": case "hr": case "img": case "input":
+            case "keygen": case "link": case "meta": case "param": case "source": case "track": case "wbr":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /** Returns the name at {@code [start, end)}, shared with earlier reads of the same name where possible. */
+    private String name(int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + html.charAt(i);
+        }
+        int slot = (hash ^ hash >>> 16) & NAME_CACHE_SIZE - 1;
+        String cached = NAME_CACHE[slot];
+        if (cached != null && matches(start, end, cached)) {
+            return cached;
+        }
+        String name = html.substring(start, end);
+        NAME_CACHE[slot] = name;
+        return name;
+    }
+
+    private boolean matches(int start, int end, String name) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (html.charAt(i) != name.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reports the text at {@code [start, end)}: unescaped as escaped text when
+     * escaping it again gives back the input, otherwise as it is.
+     */
+    private void text(int start, int end) throws IOException {
+        if (start >= end) {
+            return;
+        }
+        boolean entities = false;
+        for (int i = start; i < end; i++) {
+            char c = html.charAt(i);
+            if (c == '&') {
+                entities = true;
+            } else if (c == '<' || c == '>' || c == '"' || c == '\'') {
+                out.appendUnescapedText(html.substring(start, end));
+                return;
+            }
+        }
+        if (!entities) {
+            out.appendEscapedText(html.substring(start, end));
+            return;
+        }
+        String decoded = decode(start, end, false);
+        if (decoded == null) {
+            out.appendUnescapedText(html.substring(start, end));
+        } else {
+            out.appendEscapedText(decoded);
+        }
+    }
+
+    private String attributeValue(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (html.charAt(i) == '&') {
+                return decode(start, end, true);
+            }
+        }
+        return html.substring(start, end);
+    }
+
+    /**
+     * Decodes the entities j2html writes and, if {@code lenient}, any other
+     * character reference the way a browser decodes an attribute value:
+     * references it does not recognise stay as they are. Otherwise any other
+     * reference makes this return {@code null}.
+     */
+    private String decode(int start, int end, boolean lenient) {
+        if (decoded.length < end - start) {
+            decoded = new char[Math.max(end - start, decoded.length * 2)];
+        }
+        char[] d = decoded;
+        int n = 0;
+        int i = start;
+        while (i < end) {
+            char c = html.charAt(i);
+            if (c != '&') {
+                d[n++] = c;
+                i++;
+                continue;
+            }
+            int entity = entityAt(i, end);
+            if (entity >= 0) {
+                d[n++] = DECODED[entity];
+                i += ENTITIES[entity].length();
+                continue;
+            }
+            if (!lenient) {
+                return null;
+            }
+            int next = i + 1 < end && html.charAt(i + 1) == '#' ? numericReference(i, end) : namedReference(i, end);
+            if (next < 0) {
+                d[n++] = '&';
+                i++;
+                continue;
+            }
+            // a reference is at least three chars and stands for at most two, so it fits
+            reference.getChars(0, reference.length(), d, n);
+            n += reference.length();
+            i = next;
+        }
+        return new String(d, 0, n);
+    }
+
+    /**
+     * Reads a named reference such as {@code &copy;} at {@code amp} into
+     * {@link #reference} and returns the index after it, or {@code -1} if it
+     * is not one. As in a browser, a legacy name without its {@code ;} is only
+     * a reference if no letter, digit or {@code =} follows it.
+     */
+    private int namedReference(int amp, int end) {
+        int nameEnd = amp + 1;
+        while (nameEnd < end && isAlphanumeric(html.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        if (nameEnd == amp + 1) {
+            return -1;
+        }
+        if (nameEnd < end && html.charAt(nameEnd) == ';') {
+            reference = NamedReferences.get(html.substring(amp + 1, nameEnd + 1));
+            if (reference != null) {
+                return nameEnd + 1;
+            }
+        }
+        for (int legacyEnd = Math.min(nameEnd, amp + 1 + NamedReferences.LONGEST_LEGACY); legacyEnd > amp + 1; legacyEnd--) {
+            reference = NamedReferences.get(html.substring(amp + 1, legacyEnd));
+            if (reference != null) {
+                char following = legacyEnd < end ? html.charAt(legacyEnd) : ' ';
+                return isAlphanumeric(following) || following == '=' ? -1 : legacyEnd;
+            }
+        }
+        return -1;
+    }
+
+    /** Reads a numeric reference such as {@code &#169;} or {@code &#xA9;} into {@link #reference}. */
+    private int numericReference(int amp, int end) {
+        int semicolon = html.indexOf(';', amp);
+        if (semicolon < 0 || semicolon >= end) {
+            return -1;
+        }
+        boolean hex = html.startsWith("&#x", amp) || html.startsWith("&#X", amp);
+        int digits = amp + (hex ? 3 : 2);
+        int radix = hex ? 16 : 10;
+        int codePoint;
+        try {
+            codePoint = Character.digit(html.charAt(digits), radix) < 0
+                    ? -1 : Integer.parseInt(html.substring(digits, semicolon), radix);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (!Character.isValidCodePoint(codePoint)) {
+            return -1;
+        }
+        reference = new String(Character.toChars(codePoint));
+        return semicolon + 1;
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9';
+    }
+
+    private int entityAt(int i, int end) {
+        if (i + 1 >= end) {
+            return -1;
+        }
+        int e;
+        switch (html.charAt(i + 1)) {
+            case 'l': e = 0; break;
+            case 'g': e = 1; break;
+            case 'a': e = 2; break;
+            case 'q': e = 3; break;
+            case '#': e = 4; break;
+            default: return -1;
+        }
+        String entity = ENTITIES[e];
+        return i + entity.length() <= end && html.startsWith(entity, i) ? e : -1;
+    }
+
+    /** HTML5's named character references, loaded when a value first holds one j2html does not write. */
+    private static final class NamedReferences {
+        /** Longest name that also matches without its {@code ;}. */
+        static final int LONGEST_LEGACY = 6;
+        private static final Map<String, String> TABLE = load();
+
+        static String get(String name) {
+            return TABLE.get(name);
+        }
+
+        private static Map<String, String> load() {
+            Properties properties = new Properties();
+            try (InputStream in = HtmlFragmentReader.class.getResourceAsStream("html-entities.properties")) {
+                if (in == null) {
+                    throw new IllegalStateException("html-entities.properties is missing");
+                }
+                properties.load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Map<String, String> table = new HashMap<>(properties.size() * 2);
+            for (String name : properties.stringPropertyNames()) {
+                table.put(name, properties.getProperty(name));
+            }
+            return table;
+        }
+    }
+}
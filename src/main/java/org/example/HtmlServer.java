@@ -0,0 +1,103 @@
+package org.example;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded HTTP server for a {@link PrecompiledPage}, built on the JDK's
+ * {@code com.sun.net.httpserver}. Each request runs on its own virtual thread
+ * on JDK 21+ and on a bounded platform thread pool otherwise. Responses are
+ * served from the page's pre-compressed {@link CompressedVariants}, carry a
+ * Content-Length so HTTP/1.1 connections stay alive, and are revalidated with
+ * ETags.
+ */
+public class HtmlServer {
+    static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 1024;
+    private static final int FALLBACK_QUEUE_SIZE = 4096;
+    private static final String CONTENT_TYPE = "text/html; charset=utf-8";
+
+    private final PrecompiledPage page;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public HtmlServer(int port, PrecompiledPage page) throws IOException {
+        this.page = Objects.requireNonNull(page, "page");
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public HtmlServer start() {
+        server.start();
+        return this;
+    }
+
+    /** The bound port, useful when the server was created with port 0. */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            boolean head = "HEAD".equals(method);
+            if (!head && !"GET".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            CompressedVariants.Variant variant = page.variants().select(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("Content-Type", CONTENT_TYPE);
+            headers.set("Vary", "Accept-Encoding");
+            headers.set("ETag", variant.etag());
+            if (variant.coding().headerValue() != null) {
+                headers.set("Content-Encoding", variant.coding().headerValue());
+            }
+            if (variant.matches(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            byte[] body = variant.bytes();
+            if (head) {
+                headers.set("Content-Length", Integer.toString(body.length));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static ExecutorService newRequestExecutor() {
+        ExecutorService virtual = VirtualThreads.newPerTaskExecutorOrNull();
+        if (virtual != null) {
+            return virtual;
+        }
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        // CallerRunsPolicy pushes back on the dispatcher thread once the queue is full
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(FALLBACK_QUEUE_SIZE), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
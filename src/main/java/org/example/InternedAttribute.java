@@ -0,0 +1,146 @@
+package org.example;
+
+import j2html.attributes.Attribute;
+import j2html.rendering.TagBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Attribute backed by a shared, pre-rendered flyweight. Every
+ * {@code InternedAttribute.of("class", "container")} refers to the same name
+ * and value strings and to the markup {@code  class="container"} escaped once
+ * up front, which {@link Utf8Html} copies verbatim instead of escaping the
+ * value again:
+ * <pre>div().attr(InternedAttribute.of("class", "container"))</pre>
+ * Only common names and values and those passed to {@link #register} are
+ * interned; anything else behaves like a plain attribute, so request data
+ * never grows the shared table. Changing the value through the tag, e.g.
+ * with {@code withClass}, re-resolves the flyweight for that attribute only.
+ * Attributes that j2html's {@code with...} setters create are plain ones;
+ * only those added through {@code attr(InternedAttribute.of(...))} are
+ * interned.
+ * <p>
+ * The pre-escaped form is used only by a Utf8Html whose escaper is j2html's
+ * default or {@link FastEscaper}. Every other builder, including FlatHtml and
+ * IndentedHtml, gets the name and value through the public
+ * {@link TagBuilder#appendAttribute} and escapes the value itself.
+ */
+public final class InternedAttribute extends Attribute {
+    private static final ConcurrentMap<String, Name> NAMES = new ConcurrentHashMap<>();
+
+    static {
+        register("class", "container", "container-fluid", "row", "col", "active", "disabled", "hidden",
+                "btn", "btn-primary", "btn-secondary", "nav", "nav-item", "nav-link", "navbar", "card",
+                "card-body", "table", "form-control", "form-group", "list-group", "list-group-item");
+        register("target", "_blank", "_self", "_parent", "_top");
+        register("rel", "stylesheet", "icon", "noopener", "noreferrer", "noopener noreferrer", "nofollow", "preload");
+        register("type", "text", "button", "submit", "reset", "checkbox", "radio", "hidden", "password",
+                "email", "number", "search", "text/css", "text/javascript", "module");
+        register("role", "button", "navigation", "main", "banner", "contentinfo", "dialog", "alert",
+                "presentation", "menu", "menuitem", "list", "listitem", "tab", "tabpanel");
+        register("aria-hidden", "true", "false");
+        register("aria-expanded", "true", "false");
+        register("method", "get", "post");
+        register("charset", "UTF-8", "utf-8");
+        register("lang", "en");
+        register("href", "#", "/");
+        for (String name : new String[]{"id", "style", "src", "alt", "title", "name", "value", "for",
+                "content", "placeholder", "action", "width", "height", "aria-label", "data-toggle", "data-target",
+                "checked", "selected", "disabled", "readonly", "required", "multiple", "autofocus", "async", "defer"}) {
+            register(name);
+        }
+    }
+
+    private Entry entry;
+
+    private InternedAttribute(Entry entry) {
+        super(entry.name, entry.value);
+        this.entry = entry;
+    }
+
+    private InternedAttribute(String name, String value) {
+        super(name, value);
+    }
+
+    /**
+     * Interns {@code name} and, for that name, each of {@code values}. Meant for
+     * the application's own constants, registered once at startup.
+     */
+    public static void register(String name, String... values) {
+        Name interned = NAMES.computeIfAbsent(Objects.requireNonNull(name, "name"), Name::new);
+        for (String value : values) {
+            interned.values.computeIfAbsent(Objects.requireNonNull(value, "value"), v -> new Entry(interned.name, v));
+        }
+    }
+
+    /**
+     * Returns an attribute sharing the interned form of {@code name="value"} if
+     * it is registered, otherwise a plain one; a null value is a boolean
+     * attribute.
+     */
+    public static InternedAttribute of(String name, String value) {
+        Entry entry = entry(name, value);
+        return entry != null ? new InternedAttribute(entry) : new InternedAttribute(name, value);
+    }
+
+    /** Whether this attribute currently renders from a shared flyweight. */
+    boolean isInterned() {
+        return entry != null;
+    }
+
+    @Override
+    public void setValue(String value) {
+        super.setValue(value);
+        entry = entry(getName(), value);
+    }
+
+    @Override
+    public void render(TagBuilder builder, Object model) throws IOException {
+        Entry interned = entry;
+        if (interned != null && builder instanceof Utf8Html.Utf8TagBuilder
+                && ((Utf8Html.Utf8TagBuilder) builder).appendPreEscaped(interned.utf8)) {
+            return;
+        }
+        super.render(builder, model);
+    }
+
+    /** Returns the shared entry, or {@code null} if the name or value is not registered. */
+    private static Entry entry(String name, String value) {
+        Name interned = name == null ? null : NAMES.get(name);
+        if (interned == null) {
+            return null;
+        }
+        return value == null ? interned.booleanEntry : interned.values.get(value);
+    }
+
+    private static final class Name {
+        final String name;
+        final Entry booleanEntry;
+        final ConcurrentMap<String, Entry> values = new ConcurrentHashMap<>();
+
+        Name(String name) {
+            this.name = name;
+            this.booleanEntry = new Entry(name, null);
+        }
+    }
+
+    private static final class Entry {
+        final String name;
+        final String value;
+        /** {@code  name="escaped value"}, or {@code  name} for boolean attributes, in UTF-8. */
+        final byte[] utf8;
+
+        Entry(String name, String value) {
+            this.name = name;
+            this.value = value;
+            String rendered = value == null
+                    ? " " + name
+                    : " " + name + "=\"" + FastEscaper.INSTANCE.escape(value) + "\"";
+            this.utf8 = rendered.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RenderMetrics} backed by a {@link LatencyHistogram} and striped
+ * counters, exposed over JMX as {@code org.example:type=RenderStats,name=...}.
+ */
+public class JmxRenderMetrics implements RenderMetrics, RenderStatsMXBean {
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder outputChars = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private volatile boolean allocationUntracked;
+
+    @Override
+    public void record(long latencyNanos, long outputChars, int nodeCount, long allocatedBytes) {
+        latencies.record(latencyNanos);
+        this.outputChars.add(outputChars);
+        nodes.add(nodeCount);
+        if (allocatedBytes >= 0) {
+            this.allocatedBytes.add(allocatedBytes);
+        } else if (!allocationUntracked) {
+            allocationUntracked = true;
+        }
+    }
+
+    /** Registers this instance with the platform MBean server. */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = objectName(name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    public void unregister(String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = objectName(name);
+        if (server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+    }
+
+    static ObjectName objectName(String name) throws JMException {
+        return new ObjectName("org.example:type=RenderStats,name=" + ObjectName.quote(name));
+    }
+
+    @Override
+    public long getCount() {
+        return latencies.count();
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+        return latencies.percentile(50);
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+        return latencies.percentile(99);
+    }
+
+    @Override
+    public long getLatencyP999Nanos() {
+        return latencies.percentile(99.9);
+    }
+
+    @Override
+    public long getLatencyMaxNanos() {
+        return latencies.max();
+    }
+
+    @Override
+    public double getMeanOutputChars() {
+        return mean(outputChars.sum(), getCount());
+    }
+
+    @Override
+    public double getMeanNodeCount() {
+        return mean(nodes.sum(), getCount());
+    }
+
+    @Override
+    public double getMeanAllocatedBytes() {
+        if (allocationUntracked) {
+            return -1;
+        }
+        long count = getCount();
+        return count == 0 ? Double.NaN : (double) allocatedBytes.sum() / count;
+    }
+
+    @Override
+    public void reset() {
+        latencies.reset();
+        outputChars.reset();
+        nodes.reset();
+        allocatedBytes.reset();
+        allocationUntracked = false;
+    }
+
+    private static double mean(long sum, long count) {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+}
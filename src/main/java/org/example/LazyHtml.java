@@ -0,0 +1,79 @@
+package org.example;
+
+import j2html.rendering.HtmlBuilder;
+import j2html.tags.DomContent;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Child nodes whose subtree is built only when it is rendered. Instead of
+ * {@code condition ? li("Visible Item") : text("")}, which builds one branch
+ * and an empty text node eagerly, write
+ * <pre>ul(li("Always"), LazyHtml.when(condition, () -> li("Visible Item")))</pre>
+ * A false condition yields a shared empty node, so a skipped block costs no
+ * allocation beyond the lambda, and none at all for lambdas that capture
+ * nothing. The subtree is built again on every render and never retained.
+ */
+public final class LazyHtml extends DomContent {
+    private static final DomContent EMPTY = new DomContent() {
+        @Override
+        public <T extends Appendable> T render(HtmlBuilder<T> builder, Object model) {
+            return builder.output();
+        }
+
+        @Override
+        public String render() {
+            return "";
+        }
+    };
+
+    private final BooleanSupplier guard;
+    private final Supplier<? extends DomContent> subtree;
+
+    private LazyHtml(BooleanSupplier guard, Supplier<? extends DomContent> subtree) {
+        this.guard = guard;
+        this.subtree = Objects.requireNonNull(subtree, "subtree");
+    }
+
+    /** Node that renders nothing. */
+    public static DomContent empty() {
+        return EMPTY;
+    }
+
+    /** Builds the subtree at render time. */
+    public static DomContent lazy(Supplier<? extends DomContent> subtree) {
+        return new LazyHtml(null, subtree);
+    }
+
+    /** Builds the subtree at render time if {@code condition} holds, otherwise renders nothing. */
+    public static DomContent when(boolean condition, Supplier<? extends DomContent> subtree) {
+        return condition ? new LazyHtml(null, subtree) : EMPTY;
+    }
+
+    /**
+     * Checks {@code guard} on every render and builds and renders the subtree
+     * only while it returns true, e.g. for feature flags that can change
+     * between renders of the same tree.
+     */
+    public static DomContent when(BooleanSupplier guard, Supplier<? extends DomContent> subtree) {
+        return new LazyHtml(Objects.requireNonNull(guard, "guard"), subtree);
+    }
+
+    @Override
+    public <T extends Appendable> T render(HtmlBuilder<T> builder, Object model) throws IOException {
+        if (RenderSizeEstimator.skipsLazyContent(builder)) {
+            // the pre-pass of RenderSizeEstimator.render; building the subtree there would build it twice
+            return builder.output();
+        }
+        if (guard == null || guard.getAsBoolean()) {
+            DomContent content = subtree.get();
+            if (content != null) {
+                content.render(builder, model);
+            }
+        }
+        return builder.output();
+    }
+}
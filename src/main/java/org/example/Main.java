@@ -1,11 +1,24 @@
 package org.example;
 import static j2html.TagCreator.*;
+
+import j2html.Config;
+import j2html.tags.specialized.HtmlTag;
 import org.junit.runner.JUnitCore;
 import org.junit.runner.Result;
 import org.junit.runner.notification.Failure;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
 public class Main {
-    public static String generateHtml() {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final PrecompiledPage PRECOMPILED_PAGE = new PrecompiledPage(Main::page);
+
+    static HtmlTag page() {
         return html(
                 head(
                         title("J2HTML Example")
@@ -14,15 +27,64 @@ public class Main {
                         h1("Hello, J2HTML!"),
                         p("This is an example of using J2HTML in a Maven project.")
                 )
-        ).render();
+        );
+    }
+
+    public static String generateHtml() {
+        return MeteredRender.render(page());
+    }
+
+    /**
+     * Renders the page from {@link #generateHtml()} straight into {@code out}
+     * without materializing the whole document as a {@code String} first.
+     */
+    public static <A extends Appendable> A generateHtml(A out) throws IOException {
+        return MeteredRender.render(page(), out);
+    }
+
+    /**
+     * Streams the page as UTF-8 to {@code out} through a buffered encoder, so
+     * bytes are written as soon as the buffer fills. The stream is flushed but
+     * left open.
+     */
+    public static void generateHtml(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), STREAM_BUFFER_SIZE);
+        generateHtml(writer);
+        writer.flush();
+    }
+
+    /**
+     * Renders the page as UTF-8 into {@code out}, which can be reused across
+     * calls and written to a channel without ever creating a {@code String}.
+     */
+    public static Utf8Buffer generateHtmlUtf8(Utf8Buffer out) throws IOException {
+        return page().render(Utf8Html.into(out, Config.global()));
+    }
+
+    /**
+     * The page from {@link #generateHtml()} rendered once and cached. Call
+     * {@link PrecompiledPage#invalidate()} on it after changing the template.
+     */
+    public static PrecompiledPage precompiledPage() {
+        return PRECOMPILED_PAGE;
     }
 
-    public static void main(String[] args) {
+    /**
+     * Prints the page to stdout, or with {@code --serve [port]} serves it over
+     * HTTP on the given port (8080 by default).
+     */
+    public static void main(String[] args) throws IOException {
 
-        String html = generateHtml();
-        System.out.println(html);
+        if (args.length > 0 && "--serve".equals(args[0])) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : HtmlServer.DEFAULT_PORT;
+            HtmlServer server = new HtmlServer(port, precompiledPage()).start();
+            System.out.println("Serving on http://localhost:" + server.port() + "/");
+            return;
+        }
+        generateHtml((OutputStream) System.out);
+        System.out.println();
 
     }
 
 
-}
\ No newline at end of file
+}
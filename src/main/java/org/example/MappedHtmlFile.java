@@ -0,0 +1,183 @@
+package org.example;
+
+import j2html.Config;
+import j2html.rendering.FlatHtml;
+import j2html.tags.DomContent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link Appendable} that encodes characters to UTF-8 straight into a
+ * memory-mapped file, for exports too large to hold as a {@code String} or to
+ * push through a {@code Writer}'s char and byte buffers. The file is mapped one
+ * chunk at a time and the next chunk is mapped when the current one is full.
+ * The OS writes the pages back, so heap use does not grow with the output,
+ * and characters are encoded directly into the mapping without an
+ * intermediate copy. {@link #close()} truncates the file to the bytes actually written.
+ * <pre>
+ * try (MappedHtmlFile file = new MappedHtmlFile(path)) {
+ *     table.render(rows, file);
+ * }
+ * </pre>
+ * Until it is closed the file is padded with zeros up to the end of the
+ * current chunk. Unpaired surrogates are written as {@code '?'}, as
+ * {@link String#getBytes} does. Not thread-safe.
+ * <p>
+ * Full chunks are unmapped as soon as the next one is mapped, and the last one
+ * before the file is truncated. Unmapping relies on {@code sun.misc.Unsafe};
+ * where that is unavailable, as on Java 8, chunks stay mapped until they are
+ * garbage collected and Windows refuses to truncate a file with live
+ * mappings, so {@link #close()} fails there.
+ */
+public class MappedHtmlFile implements Appendable, Closeable {
+    static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+    // chunks that cannot be unmapped stay mapped until collected, so tiny chunks could exhaust the map count
+    static final int MIN_CHUNK_SIZE = 4096;
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            unsafe = theUnsafe.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final FileChannel channel;
+    private final int chunkSize;
+    private final Utf8Encoder encoder = new Utf8Encoder();
+    private MappedByteBuffer region;
+    private long regionStart;
+
+    public MappedHtmlFile(Path path) throws IOException {
+        this(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    /** Maps {@code chunkSize} bytes at a time; larger chunks mean fewer remappings. */
+    public MappedHtmlFile(Path path, int chunkSize) throws IOException {
+        if (chunkSize < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be at least " + MIN_CHUNK_SIZE + ": " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, chunkSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Renders {@code content} into {@code path} with the global config and returns the file size. */
+    public static long render(DomContent content, Path path) throws IOException {
+        try (MappedHtmlFile file = new MappedHtmlFile(path)) {
+            content.render(FlatHtml.into(file, Config.global()));
+            return file.size();
+        }
+    }
+
+    /** Number of bytes written so far, counting a trailing unpaired high surrogate as its {@code '?'}. */
+    public long size() throws IOException {
+        ensureOpen();
+        return regionStart + region.position() + (encoder.hasPendingSurrogate() ? 1 : 0);
+    }
+
+    @Override
+    public MappedHtmlFile append(CharSequence csq) throws IOException {
+        CharSequence chars = csq == null ? "null" : csq;
+        return append(chars, 0, chars.length());
+    }
+
+    @Override
+    public MappedHtmlFile append(CharSequence csq, int start, int end) throws IOException {
+        ensureOpen();
+        CharSequence chars = csq == null ? "null" : csq;
+        int i = start;
+        while (i < end) {
+            ensureRoom();
+            // as many chars as are sure to fit in what is left of the chunk
+            int batchEnd = Math.min(end, i + (region.remaining() - 1) / 3);
+            encoder.encode(chars, i, batchEnd, region);
+            i = batchEnd;
+        }
+        return this;
+    }
+
+    @Override
+    public MappedHtmlFile append(char c) throws IOException {
+        ensureOpen();
+        ensureRoom();
+        encoder.encode(c, region);
+        return this;
+    }
+
+    /** Truncates the file to {@link #size()} and releases it; further appends fail. */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            ensureRoom();
+            encoder.flush(region);
+            long size = regionStart + region.position();
+            unmap(region);
+            region = null;
+            channel.truncate(size);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!channel.isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /** Maps the next chunk unless the current one has room for at least one more char. */
+    private void ensureRoom() throws IOException {
+        if (region.remaining() < Utf8Encoder.maxBytes(1)) {
+            remap();
+        }
+    }
+
+    private void remap() throws IOException {
+        MappedByteBuffer full = region;
+        // mapping past the end of the file grows it
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart + full.position(), chunkSize);
+        regionStart += full.position();
+        unmap(full);
+    }
+
+    /** Releases {@code buffer}'s mapping now rather than when it is collected; it must not be used afterwards. */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // left to the garbage collector
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.example;
+
+import j2html.tags.DomContent;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Renders a stream of page models in parallel and hands every page to a
+ * {@link PageSink}. At most {@code maxInFlight} pages are queued or rendering
+ * at any time, so arbitrarily long model streams run in bounded memory.
+ */
+public class PageBatchRenderer<M> {
+    private final Function<? super M, ? extends DomContent> template;
+    private final Executor executor;
+    private final int maxInFlight;
+
+    public PageBatchRenderer(Function<? super M, ? extends DomContent> template, Executor executor, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.template = Objects.requireNonNull(template, "template");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Executor suited to bulk rendering: one virtual thread per page on JDK 21+,
+     * otherwise a fork-join pool sized to the available processors. The caller
+     * owns it and must shut it down.
+     */
+    public static ExecutorService newExecutor() {
+        ExecutorService virtual = VirtualThreads.newPerTaskExecutorOrNull();
+        return virtual != null ? virtual : new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Renders every model and writes it to {@code sink}, blocking until all
+     * submitted pages are done. Stops submitting after the first failure and
+     * rethrows it wrapped in an {@link ExecutionException}.
+     */
+    public BatchStats renderAll(Stream<? extends M> models, PageSink<? super M> sink)
+            throws InterruptedException, ExecutionException {
+        Semaphore permits = new Semaphore(maxInFlight);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong pages = new AtomicLong();
+        LatencyHistogram latencies = new LatencyHistogram();
+        long start = System.nanoTime();
+        try {
+            Iterator<? extends M> iterator = models.iterator();
+            while (failure.get() == null && iterator.hasNext()) {
+                M model = iterator.next();
+                permits.acquire();
+                try {
+                    executor.execute(() -> {
+                        try {
+                            long pageStart = System.nanoTime();
+                            sink.accept(model, template.apply(model).render());
+                            latencies.record(System.nanoTime() - pageStart);
+                            pages.incrementAndGet();
+                        } catch (Throwable t) {
+                            failure.compareAndSet(null, t);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+        } finally {
+            // wait for the pages still in flight
+            permits.acquireUninterruptibly(maxInFlight);
+            permits.release(maxInFlight);
+        }
+        if (failure.get() != null) {
+            throw new ExecutionException("Rendering failed after " + pages.get() + " pages", failure.get());
+        }
+        return new BatchStats(pages.get(), System.nanoTime() - start, latencies);
+    }
+
+    /** Throughput and per-page latency of one {@link #renderAll} run. */
+    public static final class BatchStats {
+        private final long pages;
+        private final long elapsedNanos;
+        private final LatencyHistogram latencies;
+
+        BatchStats(long pages, long elapsedNanos, LatencyHistogram latencies) {
+            this.pages = pages;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+        }
+
+        public long pages() {
+            return pages;
+        }
+
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double pagesPerSecond() {
+            return elapsedNanos == 0 ? 0 : pages * 1e9 / elapsedNanos;
+        }
+
+        /** Render-plus-write latency of a single page at the given percentile. */
+        public long latencyNanos(double percentile) {
+            return latencies.percentile(percentile);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d pages in %.1f ms (%.0f pages/s), latency p50=%dus p99=%dus p99.9=%dus max=%dus",
+                    pages, elapsedNanos / 1e6, pagesPerSecond(),
+                    latencyNanos(50) / 1000, latencyNanos(99) / 1000, latencyNanos(99.9) / 1000, latencies.max() / 1000);
+        }
+    }
+}
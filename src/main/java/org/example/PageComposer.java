@@ -0,0 +1,299 @@
+package org.example;
+
+import j2html.Config;
+import j2html.rendering.FlatHtml;
+import j2html.tags.ContainerTag;
+import j2html.tags.DomContent;
+import j2html.tags.specialized.BodyTag;
+import j2html.tags.specialized.HeadTag;
+import j2html.tags.specialized.HtmlTag;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import static j2html.TagCreator.body;
+import static j2html.TagCreator.html;
+import static j2html.TagCreator.rawHtml;
+
+/**
+ * Assembles a page from independent sections that are fetched and rendered
+ * concurrently, one thread per section, and stitched together in the order
+ * they were added. Page latency is that of the slowest section rather than
+ * the sum of all of them.
+ * <p>
+ * Every {@link #compose()} runs its sections in a scope of its own: when it
+ * returns or throws, all section threads have been interrupted and have
+ * exited, unless a section ignores the interrupt for longer than
+ * {@value #TERMINATION_TIMEOUT_MILLIS} ms. Late results are discarded. A
+ * section with a fallback that fails or misses its timeout is replaced by the
+ * fallback; a required section that fails cancels the remaining sections and
+ * fails the whole page.
+ * <p>
+ * {@link #stream(HtmlTag, HeadTag, BodyTag, Writer)} sends the document head to the client
+ * before any section is done, so the browser can start fetching the styles
+ * and scripts it references, and then streams the sections as they complete.
+ */
+public class PageComposer {
+    /** How long a finished compose() waits for interrupted sections to exit. */
+    static final long TERMINATION_TIMEOUT_MILLIS = 1_000;
+
+    private final Supplier<? extends ExecutorService> scopeFactory;
+    private final List<Section> sections = new ArrayList<>();
+
+    /** Runs sections on virtual threads on JDK 21+, on fresh daemon threads otherwise. */
+    public PageComposer() {
+        this(PageComposer::newScopeExecutor);
+    }
+
+    /**
+     * @param scopeFactory creates the executor for one {@link #compose()} call;
+     *                     it is shut down when the call completes
+     */
+    public PageComposer(Supplier<? extends ExecutorService> scopeFactory) {
+        this.scopeFactory = Objects.requireNonNull(scopeFactory, "scopeFactory");
+    }
+
+    static ExecutorService newScopeExecutor() {
+        ExecutorService virtual = VirtualThreads.newPerTaskExecutorOrNull();
+        if (virtual != null) {
+            return virtual;
+        }
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "page-section");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Adds a required section: the page fails if it fails. */
+    public PageComposer section(String name, Callable<? extends DomContent> body) {
+        sections.add(new Section(name, body, Long.MAX_VALUE, null));
+        return this;
+    }
+
+    /**
+     * Adds a section that is replaced by {@code fallback} if it fails or is not
+     * rendered within {@code timeout} of the start of {@link #compose()}.
+     */
+    public PageComposer section(String name, Callable<? extends DomContent> body,
+                                long timeout, TimeUnit unit, DomContent fallback) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout must not be negative: " + timeout);
+        }
+        sections.add(new Section(name, body, unit.toNanos(timeout), Objects.requireNonNull(fallback, "fallback")));
+        return this;
+    }
+
+    /**
+     * Renders all sections and returns them stitched together in document
+     * order, as markup that can be placed anywhere in a j2html tree.
+     *
+     * @throws ExecutionException if a required section fails
+     */
+    public DomContent compose() throws InterruptedException, ExecutionException {
+        try {
+            return rawHtml(String.join("", renderSections(html -> {
+            })));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown: the listener does no I/O
+        }
+    }
+
+    /** Same as {@link #stream(HtmlTag, HeadTag, BodyTag, Writer)} with bare {@code html} and {@code body} tags. */
+    public <W extends Writer> W stream(HeadTag head, W out)
+            throws IOException, InterruptedException, ExecutionException {
+        return stream(html(), head, body(), out);
+    }
+
+    /**
+     * Writes a complete document to {@code out}, flushing early. The doctype,
+     * the opening {@code html} tag, {@code head} and the opening {@code body}
+     * tag are written and flushed while the sections are still running. Each
+     * section is then written and flushed as soon as it and all sections before
+     * it are resolved; sections that finish out of order are held back until
+     * their turn. If a required section fails, the sections before it have
+     * already been sent and the document is left unterminated.
+     *
+     * @param html supplies the attributes of the {@code html} element, such as
+     *             {@code lang}; it must be empty
+     * @param body supplies the attributes of the {@code body} element; it must
+     *             be empty, as the sections are its content
+     * @throws ExecutionException if a required section fails
+     */
+    public <W extends Writer> W stream(HtmlTag html, HeadTag head, BodyTag body, W out)
+            throws IOException, InterruptedException, ExecutionException {
+        String htmlOpenTag = openTag(html);
+        Objects.requireNonNull(head, "head");
+        String bodyOpenTag = openTag(body);
+        int[] next = {0};
+        renderSections(new SectionListener() {
+            @Override
+            public void started() throws IOException {
+                out.write("<!DOCTYPE html>");
+                out.write(htmlOpenTag);
+                head.render(FlatHtml.into(out, Config.global()));
+                out.write(bodyOpenTag);
+                out.flush();
+            }
+
+            @Override
+            public void resolved(String[] html) throws IOException {
+                int first = next[0];
+                while (next[0] < html.length && html[next[0]] != null) {
+                    out.write(html[next[0]++]);
+                }
+                if (next[0] > first) {
+                    out.flush();
+                }
+            }
+        });
+        out.write("</body></html>");
+        out.flush();
+        return out;
+    }
+
+    /** The start tag of an empty element, with its attributes. */
+    private static String openTag(ContainerTag<?> tag) {
+        Objects.requireNonNull(tag, "tag");
+        if (tag.getNumChildren() > 0) {
+            throw new IllegalArgumentException("<" + tag.getTagName() + "> must be empty; only its attributes are used");
+        }
+        String rendered = tag.render();
+        return rendered.substring(0, rendered.length() - tag.getTagName().length() - 3);
+    }
+
+    /** Callbacks on the composing thread while sections run. */
+    private interface SectionListener {
+        /** Called once all sections have been submitted. */
+        default void started() throws IOException {
+        }
+
+        /** Called whenever a section has been resolved, with the markup of all resolved sections so far. */
+        void resolved(String[] html) throws IOException;
+    }
+
+    private String[] renderSections(SectionListener listener)
+            throws IOException, InterruptedException, ExecutionException {
+        int count = sections.size();
+        String[] html = new String[count];
+        List<Future<?>> futures = new ArrayList<>(count);
+        BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        String[] rendered = new String[count];
+        Throwable[] failures = new Throwable[count];
+        AtomicReferenceArray<Thread> threads = new AtomicReferenceArray<>(count);
+        long start = System.nanoTime();
+        ExecutorService scope = scopeFactory.get();
+        try {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                Callable<? extends DomContent> body = sections.get(i).body;
+                futures.add(scope.submit(() -> {
+                    threads.set(index, Thread.currentThread());
+                    try {
+                        DomContent content = body.call();
+                        rendered[index] = content == null ? "" : content.render();
+                    } catch (Throwable t) {
+                        failures[index] = t;
+                    } finally {
+                        completed.add(index);
+                    }
+                }));
+            }
+            listener.started();
+
+            int remaining = count;
+            while (remaining > 0) {
+                Integer done = completed.poll(nanosUntilNextDeadline(html, start), TimeUnit.NANOSECONDS);
+                if (done != null) {
+                    if (html[done] != null) {
+                        continue; // finished after its timeout; already replaced by its fallback
+                    }
+                    // The queue hand-off makes the section's writes visible here
+                    Section section = sections.get(done);
+                    if (failures[done] == null) {
+                        html[done] = rendered[done];
+                    } else if (section.fallback != null) {
+                        html[done] = section.fallback.render();
+                    } else {
+                        throw new ExecutionException("section '" + section.name + "' failed", failures[done]);
+                    }
+                    remaining--;
+                    listener.resolved(html);
+                }
+                long elapsed = System.nanoTime() - start;
+                for (int i = 0; i < count; i++) {
+                    Section section = sections.get(i);
+                    if (html[i] == null && elapsed >= section.timeoutNanos) {
+                        futures.get(i).cancel(true);
+                        html[i] = section.fallback.render();
+                        remaining--;
+                        listener.resolved(html);
+                    }
+                }
+            }
+        } finally {
+            close(scope, threads);
+        }
+        return html;
+    }
+
+    /**
+     * Interrupts whatever is still running and waits, up to
+     * {@link #TERMINATION_TIMEOUT_MILLIS} in total, for the executor to
+     * terminate and for every thread that ran a section to exit.
+     */
+    private static void close(ExecutorService scope, AtomicReferenceArray<Thread> threads) {
+        scope.shutdownNow();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TERMINATION_TIMEOUT_MILLIS);
+        try {
+            scope.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            // a pool reports termination just before its last workers return
+            for (int i = 0; i < threads.length(); i++) {
+                Thread thread = threads.get(i);
+                if (thread != null && thread != Thread.currentThread()) {
+                    TimeUnit.NANOSECONDS.timedJoin(thread, deadline - System.nanoTime());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long nanosUntilNextDeadline(String[] html, long start) {
+        long next = Long.MAX_VALUE;
+        for (int i = 0; i < html.length; i++) {
+            if (html[i] == null) {
+                next = Math.min(next, sections.get(i).timeoutNanos);
+            }
+        }
+        return next == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, next - (System.nanoTime() - start));
+    }
+
+    private static final class Section {
+        final String name;
+        final Callable<? extends DomContent> body;
+        final long timeoutNanos;
+        final DomContent fallback;
+
+        Section(String name, Callable<? extends DomContent> body, long timeoutNanos, DomContent fallback) {
+            this.name = Objects.requireNonNull(name, "name");
+            this.body = Objects.requireNonNull(body, "body");
+            this.timeoutNanos = timeoutNanos;
+            this.fallback = fallback;
+        }
+    }
+}
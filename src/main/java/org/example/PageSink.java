@@ -0,0 +1,12 @@
+package org.example;
+
+import java.io.IOException;
+
+/**
+ * Receives rendered pages from a {@link PageBatchRenderer}. Implementations are
+ * called from several worker threads at once and must be thread-safe.
+ */
+@FunctionalInterface
+public interface PageSink<M> {
+    void accept(M model, String html) throws IOException;
+}
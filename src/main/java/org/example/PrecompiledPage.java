@@ -0,0 +1,105 @@
+package org.example;
+
+import j2html.tags.DomContent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Renders a constant j2html tree once and serves the cached output afterwards.
+ * The template is only rebuilt after {@link #invalidate()} is called, so the hot
+ * path does no tree construction, escaping, UTF-8 encoding or compression.
+ */
+public class PrecompiledPage {
+    private final Supplier<? extends DomContent> template;
+    private volatile Rendered rendered;
+
+    public PrecompiledPage(Supplier<? extends DomContent> template) {
+        this.template = Objects.requireNonNull(template, "template");
+    }
+
+    /** Returns the rendered HTML, rendering the template on first use. */
+    public String html() {
+        return rendered().html;
+    }
+
+    /**
+     * Returns a copy of the rendered HTML encoded as UTF-8. Use
+     * {@link #utf8Buffer()} or {@link #writeTo} on hot paths, they do not copy.
+     */
+    public byte[] utf8Bytes() {
+        return rendered().utf8.clone();
+    }
+
+    /** Read-only view of the cached UTF-8 bytes. */
+    public ByteBuffer utf8Buffer() {
+        return ByteBuffer.wrap(rendered().utf8).asReadOnlyBuffer();
+    }
+
+    /** Number of bytes in the UTF-8 encoded page. */
+    public int utf8Length() {
+        return rendered().utf8.length;
+    }
+
+    /** Writes the cached UTF-8 bytes to {@code out} without copying them. */
+    public void writeTo(OutputStream out) throws IOException {
+        byte[] utf8 = rendered().utf8;
+        out.write(utf8, 0, utf8.length);
+    }
+
+    /**
+     * Identity, gzip and deflate encodings of the page with their ETags,
+     * compressed on first use and cached until {@link #invalidate()}.
+     */
+    public CompressedVariants variants() {
+        Rendered current = rendered();
+        CompressedVariants variants = current.variants;
+        if (variants == null) {
+            variants = new CompressedVariants(current.utf8);
+            current.variants = variants;
+        }
+        return variants;
+    }
+
+    /**
+     * Drops the cached output; the next access renders the template again.
+     * Waits for a render that is in progress, which may have read the old
+     * template, so that its result is dropped as well.
+     */
+    public void invalidate() {
+        synchronized (this) {
+            rendered = null;
+        }
+    }
+
+    private Rendered rendered() {
+        Rendered current = rendered;
+        if (current == null) {
+            synchronized (this) {
+                current = rendered;
+                if (current == null) {
+                    String html = template.get().render();
+                    current = new Rendered(html, html.getBytes(StandardCharsets.UTF_8));
+                    rendered = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class Rendered {
+        private final String html;
+        private final byte[] utf8;
+        // compressed lazily; racing threads produce identical variants
+        private volatile CompressedVariants variants;
+
+        private Rendered(String html, byte[] utf8) {
+            this.html = html;
+            this.utf8 = utf8;
+        }
+    }
+}
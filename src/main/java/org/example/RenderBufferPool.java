@@ -0,0 +1,129 @@
+package org.example;
+
+import j2html.Config;
+import j2html.rendering.FlatHtml;
+import j2html.tags.DomContent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of {@link StringBuilder}s reused across renders. Idle builders sit in a
+ * small array of slots picked by thread id rather than in a {@link ThreadLocal},
+ * so it works the same for virtual threads, which would otherwise each pin a
+ * buffer of their own. New builders are sized from a running average of
+ * recent output lengths, and builders that grew far beyond it (or beyond
+ * {@code maxRetainedChars}) are dropped on release instead of being kept.
+ */
+public class RenderBufferPool {
+    private static final int MIN_CAPACITY = 256;
+    private static final int PROBES = 4;
+    private static final RenderBufferPool SHARED =
+            new RenderBufferPool(Runtime.getRuntime().availableProcessors() * 2, 1 << 20);
+
+    private final AtomicReferenceArray<StringBuilder> slots;
+    private final int maxRetainedChars;
+    private volatile int averageLength = MIN_CAPACITY;
+    private final LongAdder acquires = new LongAdder();
+    private final LongAdder reuses = new LongAdder();
+    private final LongAdder discards = new LongAdder();
+
+    public RenderBufferPool(int slots, int maxRetainedChars) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("slots must be positive: " + slots);
+        }
+        this.slots = new AtomicReferenceArray<>(slots);
+        this.maxRetainedChars = maxRetainedChars;
+    }
+
+    public static RenderBufferPool shared() {
+        return SHARED;
+    }
+
+    /** Renders {@code content} into a pooled builder and returns the result. */
+    public String render(DomContent content) {
+        StringBuilder buffer = acquire();
+        try {
+            content.render(FlatHtml.into(buffer, Config.global()));
+            return buffer.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    /** Takes an empty builder from the pool; hand it back with {@link #release}. */
+    public StringBuilder acquire() {
+        acquires.increment();
+        int start = slotFor(Thread.currentThread());
+        for (int i = 0; i < PROBES; i++) {
+            StringBuilder buffer = slots.getAndSet((start + i) % slots.length(), null);
+            if (buffer != null) {
+                reuses.increment();
+                return buffer;
+            }
+        }
+        int average = averageLength;
+        return new StringBuilder(average + (average >> 2));
+    }
+
+    public void release(StringBuilder buffer) {
+        int length = buffer.length();
+        int average = averageLength;
+        averageLength = Math.max(MIN_CAPACITY, average + ((length - average) >> 3));
+        if (buffer.capacity() > maxRetainedChars || buffer.capacity() > Math.max(MIN_CAPACITY, averageLength) * 4) {
+            discards.increment();
+            return;
+        }
+        buffer.setLength(0);
+        int start = slotFor(Thread.currentThread());
+        for (int i = 0; i < PROBES; i++) {
+            if (slots.compareAndSet((start + i) % slots.length(), null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    private int slotFor(Thread thread) {
+        long id = thread.getId();
+        return (int) ((id ^ (id >>> 32)) & Integer.MAX_VALUE) % slots.length();
+    }
+
+    public long acquires() {
+        return acquires.sum();
+    }
+
+    public long reuses() {
+        return reuses.sum();
+    }
+
+    /** Builders dropped on release because they had grown too large. */
+    public long discards() {
+        return discards.sum();
+    }
+
+    public double reuseRate() {
+        long total = acquires();
+        return total == 0 ? 0 : (double) reuses() / total;
+    }
+
+    /** Running average of recent output lengths, used to size new builders. */
+    public int averageLength() {
+        return averageLength;
+    }
+
+    /** Characters of capacity held by idle pooled builders. */
+    public long retainedChars() {
+        long retained = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            StringBuilder buffer = slots.get(i);
+            if (buffer != null) {
+                retained += buffer.capacity();
+            }
+        }
+        return retained;
+    }
+}
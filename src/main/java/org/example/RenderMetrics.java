@@ -0,0 +1,32 @@
+package org.example;
+
+/**
+ * Receives samples from {@link MeteredRender}, one for each measured render;
+ * see {@link MeteredRender#sampleInterval()}. Implementations are called on
+ * the rendering thread and must be thread-safe and cheap.
+ */
+public interface RenderMetrics {
+
+    /** Discards everything; {@link MeteredRender} skips all measurement for it. */
+    RenderMetrics NOOP = new RenderMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void record(long latencyNanos, long outputChars, int nodeCount, long allocatedBytes) {
+        }
+    };
+
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * @param outputChars    length of the output in UTF-16 chars, not bytes
+     * @param allocatedBytes bytes allocated by the rendering thread, or -1 when
+     *                       the JVM does not support allocation tracking
+     */
+    void record(long latencyNanos, long outputChars, int nodeCount, long allocatedBytes);
+}
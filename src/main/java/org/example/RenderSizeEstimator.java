@@ -0,0 +1,187 @@
+package org.example;
+
+import j2html.Config;
+import j2html.rendering.FlatHtml;
+import j2html.rendering.HtmlBuilder;
+import j2html.rendering.TagBuilder;
+import j2html.tags.DomContent;
+import j2html.utils.TextEscaper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Computes the exact length of {@code content.render()} without producing the
+ * output, so the output buffer can be allocated once at the right size
+ * instead of being grown by doubling. The pre-pass walks the tree and adds up
+ * tag names, attributes and text, counting the characters escaping adds. With
+ * j2html's default escaper or {@link FastEscaper} it allocates nothing; with
+ * any other escaper it has to escape the text to measure it.
+ * <p>
+ * {@link #render} leaves {@link LazyHtml} content out of the pre-pass, so
+ * each supplier runs once; the buffer grows as usual if lazy content shows up.
+ */
+public final class RenderSizeEstimator {
+    // Arrays cannot quite reach Integer.MAX_VALUE on common JVMs
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private static final int[] EXTRA = new int[128];
+
+    static {
+        for (char c = 0; c < EXTRA.length; c++) {
+            String replacement = FastEscaper.replacement(c);
+            if (replacement != null) {
+                EXTRA[c] = replacement.length() - 1;
+            }
+        }
+    }
+
+    private RenderSizeEstimator() {
+    }
+
+    /** Length of {@code content.render()} under the current global configuration. */
+    public static long exactLength(DomContent content) {
+        return length(content, false);
+    }
+
+    /**
+     * Same as {@code content.render()}, rendered into a builder sized by
+     * {@link #exactLength}, not counting lazy content.
+     */
+    public static String render(DomContent content) {
+        StringBuilder out = new StringBuilder((int) Math.min(length(content, true), MAX_CAPACITY));
+        try {
+            return content.render(FlatHtml.into(out, Config.global())).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long length(DomContent content, boolean skipLazyContent) {
+        try {
+            return content.render(new SizingHtml(Config.textEscaper, Config.closeEmptyTags, skipLazyContent)).length;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Whether {@code builder} is a pre-pass that lazy content should not be built for. */
+    static boolean skipsLazyContent(HtmlBuilder<?> builder) {
+        return builder instanceof SizingHtml && ((SizingHtml) builder).skipLazyContent;
+    }
+
+    /** Length of {@code FastEscaper.INSTANCE.escape(text)}, or of "null" for null as FlatHtml appends it. */
+    static long escapedLength(String text) {
+        if (text == null) {
+            return 4;
+        }
+        int length = text.length();
+        long escaped = length;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 128) {
+                escaped += EXTRA[c];
+            }
+        }
+        return escaped;
+    }
+
+    /** Mirrors FlatHtml, adding up lengths instead of appending. */
+    private static final class SizingHtml implements HtmlBuilder<SizingHtml>, TagBuilder {
+        private final TextEscaper escaper;
+        private final boolean plainEscaper;
+        private final boolean closeEmptyTags;
+        private final boolean skipLazyContent;
+        private boolean inEmptyTag;
+        long length;
+
+        SizingHtml(TextEscaper escaper, boolean closeEmptyTags, boolean skipLazyContent) {
+            this.escaper = escaper;
+            this.plainEscaper = FastEscaper.isEquivalent(escaper);
+            this.closeEmptyTags = closeEmptyTags;
+            this.skipLazyContent = skipLazyContent;
+        }
+
+        private long escaped(String text) {
+            if (plainEscaper) {
+                return escapedLength(text);
+            }
+            return String.valueOf(escaper.escape(text)).length();
+        }
+
+        @Override
+        public TagBuilder appendStartTag(String name) {
+            length += 1 + name.length();
+            inEmptyTag = false;
+            return this;
+        }
+
+        @Override
+        public TagBuilder appendEmptyTag(String name) {
+            length += 1 + name.length();
+            inEmptyTag = true;
+            return this;
+        }
+
+        @Override
+        public TagBuilder appendAttribute(String name, String value) {
+            length += 1 + name.length() + 2 + escaped(value) + 1;
+            return this;
+        }
+
+        @Override
+        public TagBuilder appendBooleanAttribute(String name) {
+            length += 1 + name.length();
+            return this;
+        }
+
+        @Override
+        public HtmlBuilder<SizingHtml> completeTag() {
+            length += inEmptyTag && closeEmptyTags ? 2 : 1;
+            return this;
+        }
+
+        @Override
+        public HtmlBuilder<SizingHtml> appendEndTag(String name) {
+            length += 3 + name.length();
+            return this;
+        }
+
+        @Override
+        public HtmlBuilder<SizingHtml> appendEscapedText(String txt) {
+            length += escaped(txt);
+            return this;
+        }
+
+        @Override
+        public HtmlBuilder<SizingHtml> appendUnescapedText(String txt) {
+            length += String.valueOf(txt).length();
+            return this;
+        }
+
+        @Override
+        public SizingHtml output() {
+            return this;
+        }
+
+        @Override
+        @Deprecated
+        public SizingHtml append(CharSequence csq) {
+            length += String.valueOf(csq).length();
+            return this;
+        }
+
+        @Override
+        @Deprecated
+        public SizingHtml append(CharSequence csq, int start, int end) {
+            length += end - start;
+            return this;
+        }
+
+        @Override
+        @Deprecated
+        public SizingHtml append(char c) {
+            length++;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example;
+
+/**
+ * JMX view of the render statistics collected by {@link JmxRenderMetrics}.
+ * The statistics cover the renders {@link MeteredRender} sampled, not every
+ * render.
+ */
+public interface RenderStatsMXBean {
+    /** Number of sampled renders. */
+    long getCount();
+
+    long getLatencyP50Nanos();
+
+    long getLatencyP99Nanos();
+
+    long getLatencyP999Nanos();
+
+    long getLatencyMaxNanos();
+
+    /**
+     * Mean output length in UTF-16 chars, as in {@code String.length()}. This
+     * is the byte size for ASCII pages; UTF-8 output of non-ASCII text is larger.
+     */
+    double getMeanOutputChars();
+
+    double getMeanNodeCount();
+
+    /**
+     * Mean bytes allocated per render, NaN before the first sample, or -1 when
+     * allocation tracking is unavailable.
+     */
+    double getMeanAllocatedBytes();
+
+    void reset();
+}
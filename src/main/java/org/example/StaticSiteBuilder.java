@@ -0,0 +1,227 @@
+package org.example;
+
+import j2html.Config;
+import j2html.tags.DomContent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Incremental static-site build. Every page is fingerprinted from the
+ * template version and a description of its model; pages whose fingerprint
+ * matches the previous build and whose file still exists are neither rendered
+ * nor written. Changed pages are written to a temporary file, synced to disk
+ * and moved into place, so readers never see a half-written page, even after a
+ * crash. Pages that were in the previous build but not in this one are
+ * deleted. Fingerprints are kept in a compact binary index
+ * ({@value #INDEX_FILE}) in the output directory.
+ */
+public class StaticSiteBuilder<M> {
+    static final String INDEX_FILE = ".site-index";
+    private static final int INDEX_MAGIC = 0x4A32494E;
+    private static final int INDEX_VERSION = 1;
+
+    private final Path outputDir;
+    private final String templateVersion;
+    private final Function<? super M, String> pathOf;
+    private final Function<? super M, String> modelFingerprint;
+    private final Function<? super M, ? extends DomContent> template;
+
+    /**
+     * @param templateVersion  changes whenever the template itself changes
+     * @param pathOf           output path of a page, relative to {@code outputDir}
+     * @param modelFingerprint a string that changes whenever the page's model does,
+     *                         e.g. the model's {@code toString()} or a content hash
+     */
+    public StaticSiteBuilder(Path outputDir, String templateVersion, Function<? super M, String> pathOf,
+                             Function<? super M, String> modelFingerprint,
+                             Function<? super M, ? extends DomContent> template) {
+        this.outputDir = Objects.requireNonNull(outputDir, "outputDir");
+        this.templateVersion = Objects.requireNonNull(templateVersion, "templateVersion");
+        this.pathOf = Objects.requireNonNull(pathOf, "pathOf");
+        this.modelFingerprint = Objects.requireNonNull(modelFingerprint, "modelFingerprint");
+        this.template = Objects.requireNonNull(template, "template");
+    }
+
+    public BuildReport build(Stream<? extends M> models) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(outputDir);
+        Path indexFile = outputDir.resolve(INDEX_FILE);
+        Map<String, Long> previous = readIndex(indexFile);
+        Map<String, Long> current = new HashMap<>();
+        Utf8Buffer buffer = new Utf8Buffer();
+        int rendered = 0;
+        int skipped = 0;
+        Path root = outputDir.normalize();
+        Iterator<? extends M> iterator = models.iterator();
+        while (iterator.hasNext()) {
+            M model = iterator.next();
+            String path = pathOf.apply(model);
+            Path target = resolve(root, path);
+            long fingerprint = fingerprint(templateVersion, modelFingerprint.apply(model));
+            if (current.put(path, fingerprint) != null) {
+                throw new IllegalArgumentException("Duplicate page path: " + path);
+            }
+            Long last = previous.get(path);
+            if (last != null && last == fingerprint && Files.exists(target)) {
+                skipped++;
+                continue;
+            }
+            template.apply(model).render(Utf8Html.into(buffer.reset(), Config.global()));
+            writeAtomically(target, buffer);
+            rendered++;
+        }
+        int deleted = 0;
+        for (String path : previous.keySet()) {
+            if (!current.containsKey(path) && Files.deleteIfExists(resolve(root, path))) {
+                deleted++;
+            }
+        }
+        writeIndex(indexFile, current);
+        return new BuildReport(rendered, skipped, deleted, System.nanoTime() - start);
+    }
+
+    private static Path resolve(Path root, String path) {
+        Path target = root.resolve(path).normalize();
+        if (!target.startsWith(root)) {
+            throw new IllegalArgumentException("Page path escapes the output directory: " + path);
+        }
+        return target;
+    }
+
+    /** 64-bit FNV-1a over the template version and the model fingerprint. */
+    static long fingerprint(String templateVersion, String modelFingerprint) {
+        long hash = 0xcbf29ce484222325L;
+        hash = fnv(hash, templateVersion);
+        hash = (hash ^ 0xFFFF) * 0x100000001b3L;
+        return fnv(hash, modelFingerprint);
+    }
+
+    private static long fnv(long hash, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * 0x100000001b3L;
+            hash = (hash ^ (c >>> 8)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static void writeAtomically(Path target, Utf8Buffer content) throws IOException {
+        Path dir = target.getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, ".page", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                content.writeTo(channel);
+                // the rename may reach the disk before the data otherwise, leaving an empty page after a crash
+                channel.force(true);
+            }
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Reads the index of the previous build; a missing or unreadable index means a full rebuild. */
+    static Map<String, Long> readIndex(Path indexFile) {
+        Map<String, Long> index = new HashMap<>();
+        try (InputStream in = Files.newInputStream(indexFile);
+             DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+            if (data.readInt() != INDEX_MAGIC || data.readInt() != INDEX_VERSION) {
+                return new HashMap<>();
+            }
+            int count = data.readInt();
+            for (int i = 0; i < count; i++) {
+                index.put(data.readUTF(), data.readLong());
+            }
+            return index;
+        } catch (IOException e) {
+            // NoSuchFileException on the first build, EOFException for a truncated index
+            return new HashMap<>();
+        }
+    }
+
+    private static void writeIndex(Path indexFile, Map<String, Long> index) throws IOException {
+        Path temp = Files.createTempFile(indexFile.getParent(), ".index", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                data.writeInt(INDEX_MAGIC);
+                data.writeInt(INDEX_VERSION);
+                data.writeInt(index.size());
+                for (Map.Entry<String, Long> entry : index.entrySet()) {
+                    data.writeUTF(entry.getKey());
+                    data.writeLong(entry.getValue());
+                }
+                data.flush();
+                channel.force(true);
+            }
+            move(temp, indexFile);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Outcome of one {@link #build} run. */
+    public static final class BuildReport {
+        private final int rendered;
+        private final int skipped;
+        private final int deleted;
+        private final long elapsedNanos;
+
+        BuildReport(int rendered, int skipped, int deleted, long elapsedNanos) {
+            this.rendered = rendered;
+            this.skipped = skipped;
+            this.deleted = deleted;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int rendered() {
+            return rendered;
+        }
+
+        public int skipped() {
+            return skipped;
+        }
+
+        /** Pages of the previous build that are no longer part of the site. */
+        public int deleted() {
+            return deleted;
+        }
+
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d pages rendered, %d unchanged, %d deleted, %.1f ms", rendered, skipped, deleted,
+                    elapsedNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.example;
+
+import j2html.Config;
+import j2html.rendering.FlatHtml;
+import j2html.rendering.HtmlBuilder;
+import j2html.rendering.TagBuilder;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes {@code <table>} markup for a row source straight to an
+ * {@link Appendable}, one row at a time, without building a j2html tree.
+ * Memory use does not depend on the number of rows.
+ * <p>
+ * The output is identical to rendering the equivalent tree, e.g. for a table
+ * without headers {@code table(each(rows, r -> tr(td(col1(r)), td(col2(r)))))},
+ * and with headers {@code table(thead(tr(th(...))), tbody(each(...)))}. Cell
+ * text is escaped with the global {@link Config} escaper, like {@code td(String)}.
+ */
+public class StreamingTable<R> {
+    private final List<String[]> attributes = new ArrayList<>();
+    private final List<String> headers = new ArrayList<>();
+    private final List<Function<? super R, String>> columns = new ArrayList<>();
+    private boolean hasHeader;
+
+    public StreamingTable<R> withId(String id) {
+        return attr("id", id);
+    }
+
+    public StreamingTable<R> withClass(String className) {
+        return attr("class", className);
+    }
+
+    /** Sets an attribute of the {@code <table>} element, replacing an earlier value. */
+    public StreamingTable<R> attr(String name, String value) {
+        for (String[] attribute : attributes) {
+            if (attribute[0].equals(name)) {
+                attribute[1] = value;
+                return this;
+            }
+        }
+        attributes.add(new String[]{name, value});
+        return this;
+    }
+
+    public StreamingTable<R> withColumn(Function<? super R, String> cell) {
+        return withColumn(null, cell);
+    }
+
+    /** Adds a column; a non-null header makes the table emit a {@code thead}. */
+    public StreamingTable<R> withColumn(String header, Function<? super R, String> cell) {
+        headers.add(header);
+        columns.add(Objects.requireNonNull(cell, "cell"));
+        hasHeader |= header != null;
+        return this;
+    }
+
+    public <A extends Appendable> A render(Stream<? extends R> rows, A out) throws IOException {
+        return render(rows.iterator(), out);
+    }
+
+    public <A extends Appendable> A render(Iterable<? extends R> rows, A out) throws IOException {
+        return render(rows.iterator(), out);
+    }
+
+    public <A extends Appendable> A render(Iterator<? extends R> rows, A out) throws IOException {
+        HtmlBuilder<A> html = FlatHtml.into(out, Config.global());
+        TagBuilder table = html.appendStartTag("table");
+        for (String[] attribute : attributes) {
+            if (attribute[1] == null) {
+                table.appendBooleanAttribute(attribute[0]);
+            } else {
+                table.appendAttribute(attribute[0], attribute[1]);
+            }
+        }
+        table.completeTag();
+        if (hasHeader) {
+            html.appendStartTag("thead").completeTag();
+            html.appendStartTag("tr").completeTag();
+            for (String header : headers) {
+                appendCell(html, "th", header);
+            }
+            html.appendEndTag("tr");
+            html.appendEndTag("thead");
+            html.appendStartTag("tbody").completeTag();
+        }
+        while (rows.hasNext()) {
+            R row = rows.next();
+            html.appendStartTag("tr").completeTag();
+            for (Function<? super R, String> column : columns) {
+                appendCell(html, "td", column.apply(row));
+            }
+            html.appendEndTag("tr");
+        }
+        if (hasHeader) {
+            html.appendEndTag("tbody");
+        }
+        html.appendEndTag("table");
+        return out;
+    }
+
+    private static void appendCell(HtmlBuilder<?> html, String tagName, String text) throws IOException {
+        html.appendStartTag(tagName).completeTag();
+        html.appendEscapedText(String.valueOf(text));
+        html.appendEndTag(tagName);
+    }
+
+    /**
+     * A table with one column per result set column, headed by the column
+     * labels, for rows produced by {@link #rows(ResultSet)}.
+     */
+    public static StreamingTable<String[]> forResultSet(ResultSetMetaData metaData) throws SQLException {
+        StreamingTable<String[]> table = new StreamingTable<>();
+        for (int i = 0; i < metaData.getColumnCount(); i++) {
+            int column = i;
+            table.withColumn(metaData.getColumnLabel(i + 1), row -> row[column]);
+        }
+        return table;
+    }
+
+    /**
+     * Adapts a result set to a lazy row iterator. Each row is read with
+     * {@link ResultSet#getString(int)} only when the table asks for it;
+     * {@link SQLException}s surface as {@link UncheckedSQLException}s.
+     */
+    public static Iterator<String[]> rows(ResultSet resultSet) throws SQLException {
+        int columnCount = resultSet.getMetaData().getColumnCount();
+        return new Iterator<String[]>() {
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    try {
+                        hasNext = resultSet.next();
+                    } catch (SQLException e) {
+                        throw new UncheckedSQLException(e);
+                    }
+                }
+                return hasNext;
+            }
+
+            @Override
+            public String[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
+                String[] row = new String[columnCount];
+                try {
+                    for (int i = 0; i < columnCount; i++) {
+                        row[i] = resultSet.getString(i + 1);
+                    }
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(e);
+                }
+                return row;
+            }
+        };
+    }
+
+    /** Unchecked wrapper for a {@link SQLException} thrown while iterating {@link #rows(ResultSet)}. */
+    public static class UncheckedSQLException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public UncheckedSQLException(SQLException cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+}
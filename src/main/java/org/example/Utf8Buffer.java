@@ -0,0 +1,165 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that encodes appended characters straight to UTF-8.
+ * It is meant to be reused: {@link #reset()} keeps the backing array, so a
+ * render loop stops allocating once the buffer has grown to the page size.
+ * Unpaired surrogates are written as {@code '?'}, as {@link String#getBytes}
+ * does. Not thread-safe.
+ */
+public class Utf8Buffer implements Appendable {
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final byte[][] ESCAPES = new byte[128][];
+
+    static {
+        for (char c = 0; c < ESCAPES.length; c++) {
+            String replacement = FastEscaper.replacement(c);
+            if (replacement != null) {
+                ESCAPES[c] = ascii(replacement);
+            }
+        }
+    }
+
+    private byte[] bytes;
+    private int size;
+    private final Utf8Encoder encoder = new Utf8Encoder();
+
+    public Utf8Buffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public Utf8Buffer(int initialCapacity) {
+        bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public Utf8Buffer reset() {
+        size = 0;
+        encoder.reset();
+        return this;
+    }
+
+    /** Number of encoded bytes, counting a trailing unpaired high surrogate as its {@code '?'}. */
+    public int size() {
+        return encoder.hasPendingSurrogate() ? size + 1 : size;
+    }
+
+    public int capacity() {
+        return bytes.length;
+    }
+
+    /** Appends bytes that are already UTF-8 encoded, such as pre-encoded markup. */
+    public Utf8Buffer write(byte[] utf8) {
+        flushSurrogate();
+        ensureCapacity(utf8.length);
+        System.arraycopy(utf8, 0, bytes, size, utf8.length);
+        size += utf8.length;
+        return this;
+    }
+
+    public Utf8Buffer write(byte b) {
+        flushSurrogate();
+        ensureCapacity(1);
+        bytes[size++] = b;
+        return this;
+    }
+
+    @Override
+    public Utf8Buffer append(CharSequence csq) {
+        CharSequence chars = csq == null ? "null" : csq;
+        return append(chars, 0, chars.length());
+    }
+
+    @Override
+    public Utf8Buffer append(CharSequence csq, int start, int end) {
+        CharSequence chars = csq == null ? "null" : csq;
+        ensureCapacity(Utf8Encoder.maxBytes(end - start));
+        size = encoder.encode(chars, start, end, bytes, size);
+        return this;
+    }
+
+    @Override
+    public Utf8Buffer append(char c) {
+        ensureCapacity(Utf8Encoder.maxBytes(1));
+        size = encoder.encode(c, bytes, size);
+        return this;
+    }
+
+    /**
+     * Appends {@code text} with the same escaping as j2html's default escaper,
+     * writing replacements as bytes instead of building an escaped string.
+     */
+    public Utf8Buffer appendEscaped(String text) {
+        int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 128 && ESCAPES[c] != null) {
+                append(text, start, i);
+                write(ESCAPES[c]);
+                start = i + 1;
+            }
+        }
+        return append(text, start, length);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(encoded(), size());
+    }
+
+    /** A view of the encoded bytes; it is invalidated by further appends or {@link #reset()}. */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(encoded(), 0, size()).asReadOnlyBuffer();
+    }
+
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = asByteBuffer();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(encoded(), 0, size());
+    }
+
+    @Override
+    public String toString() {
+        return new String(encoded(), 0, size(), StandardCharsets.UTF_8);
+    }
+
+    static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * The backing array, with the {@code '?'} for a pending high surrogate
+     * written into the spare byte past {@code size}. The surrogate stays
+     * pending, so a low surrogate appended later still completes the pair.
+     */
+    private byte[] encoded() {
+        if (encoder.hasPendingSurrogate()) {
+            bytes[size] = '?';
+        }
+        return bytes;
+    }
+
+    private void flushSurrogate() {
+        // ensureCapacity keeps a spare byte for it
+        size = encoder.flush(bytes, size);
+    }
+
+    private void ensureCapacity(int extra) {
+        // one spare byte for a pending surrogate that turns into '?'
+        int required = size + extra + 1;
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes chars to UTF-8 into a caller's byte array, for {@link Utf8Buffer},
+ * or at the position of a {@link ByteBuffer}, for {@link MappedHtmlFile}. A high surrogate at the end of one call is held
+ * back until the next char shows whether it completes a pair; unpaired
+ * surrogates become {@code '?'}, as {@link String#getBytes} does. Callers make
+ * room for {@link #maxBytes(int)} bytes before encoding. Not thread-safe.
+ */
+final class Utf8Encoder {
+    private char pendingHighSurrogate;
+
+    /** Upper bound on the bytes written for {@code chars} chars, including a pending surrogate's {@code '?'}. */
+    static int maxBytes(int chars) {
+        return chars * 3 + 1;
+    }
+
+    /** Whether a high surrogate is held back; it is written as one byte if nothing completes it. */
+    boolean hasPendingSurrogate() {
+        return pendingHighSurrogate != 0;
+    }
+
+    void reset() {
+        pendingHighSurrogate = 0;
+    }
+
+    /** Encodes {@code chars[start, end)} at {@code pos} and returns the position after the last byte written. */
+    int encode(CharSequence chars, int start, int end, byte[] dst, int pos) {
+        int i = start;
+        int n = pos;
+        if (pendingHighSurrogate == 0) {
+            while (i < end) {
+                char c = chars.charAt(i);
+                if (c >= 0x80) {
+                    break;
+                }
+                dst[n++] = (byte) c;
+                i++;
+            }
+        }
+        for (; i < end; i++) {
+            n = encode(chars.charAt(i), dst, n);
+        }
+        return n;
+    }
+
+    int encode(char c, byte[] dst, int pos) {
+        int n = pos;
+        if (pendingHighSurrogate != 0) {
+            char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                dst[n++] = (byte) (0xF0 | (codePoint >> 18));
+                dst[n++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                dst[n++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                dst[n++] = (byte) (0x80 | (codePoint & 0x3F));
+                return n;
+            }
+            dst[n++] = '?';
+        }
+        if (c < 0x80) {
+            dst[n++] = (byte) c;
+        } else if (c < 0x800) {
+            dst[n++] = (byte) (0xC0 | (c >> 6));
+            dst[n++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHighSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            dst[n++] = '?';
+        } else {
+            dst[n++] = (byte) (0xE0 | (c >> 12));
+            dst[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            dst[n++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return n;
+    }
+
+    /** Encodes {@code chars[start, end)} at {@code dst}'s position and advances it past the last byte written. */
+    void encode(CharSequence chars, int start, int end, ByteBuffer dst) {
+        int i = start;
+        if (pendingHighSurrogate == 0) {
+            while (i < end) {
+                char c = chars.charAt(i);
+                if (c >= 0x80) {
+                    break;
+                }
+                dst.put((byte) c);
+                i++;
+            }
+        }
+        for (; i < end; i++) {
+            encode(chars.charAt(i), dst);
+        }
+    }
+
+    void encode(char c, ByteBuffer dst) {
+        if (pendingHighSurrogate != 0) {
+            char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                dst.put((byte) (0xF0 | (codePoint >> 18)));
+                dst.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                dst.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                dst.put((byte) (0x80 | (codePoint & 0x3F)));
+                return;
+            }
+            dst.put((byte) '?');
+        }
+        if (c < 0x80) {
+            dst.put((byte) c);
+        } else if (c < 0x800) {
+            dst.put((byte) (0xC0 | (c >> 6)));
+            dst.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHighSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            dst.put((byte) '?');
+        } else {
+            dst.put((byte) (0xE0 | (c >> 12)));
+            dst.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            dst.put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    /** Writes a pending high surrogate as {@code '?'} and returns the position after it. */
+    int flush(byte[] dst, int pos) {
+        if (pendingHighSurrogate == 0) {
+            return pos;
+        }
+        pendingHighSurrogate = 0;
+        dst[pos] = '?';
+        return pos + 1;
+    }
+
+    /** Writes a pending high surrogate as {@code '?'} at {@code dst}'s position. */
+    void flush(ByteBuffer dst) {
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            dst.put((byte) '?');
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.example;
+
+import j2html.Config;
+import j2html.rendering.HtmlBuilder;
+import j2html.rendering.TagBuilder;
+import j2html.utils.TextEscaper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link HtmlBuilder} that renders straight into a {@link Utf8Buffer}. Markup
+ * such as {@code <html}, {@code </body>} and {@code  class="} is encoded once
+ * and copied as bytes afterwards, and text is escaped directly into the buffer
+ * when the configured escaper is j2html's default or {@link FastEscaper}. The
+ * output is byte-for-byte {@code render().getBytes(UTF_8)}.
+ */
+public class Utf8Html implements HtmlBuilder<Utf8Buffer> {
+    // bounds the caches when callers generate names, e.g. data-* attributes
+    private static final int MAX_CACHED_NAMES = 1024;
+    private static final ConcurrentMap<String, byte[]> START_TAGS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, byte[]> END_TAGS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, byte[]> ATTRIBUTES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, byte[]> BOOLEAN_ATTRIBUTES = new ConcurrentHashMap<>();
+    private static final byte[] CLOSE = Utf8Buffer.ascii(">");
+    private static final byte[] SELF_CLOSE = Utf8Buffer.ascii("/>");
+
+    private final Utf8Buffer out;
+    private final TextEscaper textEscaper;
+    private final boolean inlineEscaping;
+    private final TagBuilder enclosingElementAttributes;
+    private final TagBuilder emptyElementAttributes;
+
+    public static Utf8Html into(Utf8Buffer out) {
+        return new Utf8Html(out, Config.defaults());
+    }
+
+    public static Utf8Html into(Utf8Buffer out, Config config) {
+        return new Utf8Html(out, config);
+    }
+
+    private Utf8Html(Utf8Buffer out, Config config) {
+        this.out = out;
+        this.textEscaper = config.textEscaper();
+        this.inlineEscaping = FastEscaper.isEquivalent(textEscaper);
+        this.enclosingElementAttributes = new Utf8TagBuilder(false);
+        this.emptyElementAttributes = new Utf8TagBuilder(config.closeEmptyTags());
+    }
+
+    TextEscaper textEscaper() {
+        return textEscaper;
+    }
+
+    boolean closesEmptyTags() {
+        return ((Utf8TagBuilder) emptyElementAttributes).closeTag;
+    }
+
+    @Override
+    public TagBuilder appendStartTag(String name) {
+        out.write(encoded(START_TAGS, name, "<", ""));
+        return enclosingElementAttributes;
+    }
+
+    @Override
+    public HtmlBuilder<Utf8Buffer> appendEndTag(String name) {
+        out.write(encoded(END_TAGS, name, "</", ">"));
+        return this;
+    }
+
+    @Override
+    public TagBuilder appendEmptyTag(String name) {
+        out.write(encoded(START_TAGS, name, "<", ""));
+        return emptyElementAttributes;
+    }
+
+    @Override
+    public HtmlBuilder<Utf8Buffer> appendEscapedText(String txt) {
+        appendEscaped(txt);
+        return this;
+    }
+
+    @Override
+    public HtmlBuilder<Utf8Buffer> appendUnescapedText(String txt) {
+        out.append(txt);
+        return this;
+    }
+
+    @Override
+    public Utf8Buffer output() {
+        return out;
+    }
+
+    @Override
+    @Deprecated
+    public HtmlBuilder<Utf8Buffer> append(CharSequence csq) {
+        out.append(csq);
+        return this;
+    }
+
+    @Override
+    @Deprecated
+    public HtmlBuilder<Utf8Buffer> append(CharSequence csq, int start, int end) {
+        out.append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    @Deprecated
+    public HtmlBuilder<Utf8Buffer> append(char c) {
+        out.append(c);
+        return this;
+    }
+
+    private void appendEscaped(String txt) {
+        if (inlineEscaping) {
+            if (txt == null) {
+                // j2html's escapers turn null into null, which is appended as "null"
+                out.append("null");
+            } else {
+                out.appendEscaped(txt);
+            }
+        } else {
+            out.append(textEscaper.escape(txt));
+        }
+    }
+
+    private static byte[] encoded(ConcurrentMap<String, byte[]> cache, String name, String prefix, String suffix) {
+        byte[] bytes = cache.get(name);
+        if (bytes == null) {
+            bytes = (prefix + name + suffix).getBytes(StandardCharsets.UTF_8);
+            if (cache.size() < MAX_CACHED_NAMES) {
+                cache.putIfAbsent(name, bytes);
+            }
+        }
+        return bytes;
+    }
+
+    class Utf8TagBuilder implements TagBuilder {
+        private final boolean closeTag;
+
+        private Utf8TagBuilder(boolean closeTag) {
+            this.closeTag = closeTag;
+        }
+
+        /**
+         * Writes an attribute that was escaped ahead of time, see
+         * {@link InternedAttribute}. Returns false, writing nothing, if this
+         * builder's escaper might escape it differently.
+         */
+        boolean appendPreEscaped(byte[] attribute) {
+            if (!inlineEscaping) {
+                return false;
+            }
+            out.write(attribute);
+            return true;
+        }
+
+        @Override
+        public TagBuilder appendAttribute(String name, String value) {
+            out.write(encoded(ATTRIBUTES, name, " ", "=\""));
+            appendEscaped(value);
+            out.write((byte) '"');
+            return this;
+        }
+
+        @Override
+        public TagBuilder appendBooleanAttribute(String name) {
+            out.write(encoded(BOOLEAN_ATTRIBUTES, name, " ", ""));
+            return this;
+        }
+
+        @Override
+        public HtmlBuilder<Utf8Buffer> completeTag() {
+            out.write(closeTag ? SELF_CLOSE : CLOSE);
+            return Utf8Html.this;
+        }
+
+        @Override
+        @Deprecated
+        public TagBuilder append(CharSequence csq) {
+            out.append(csq);
+            return this;
+        }
+
+        @Override
+        @Deprecated
+        public TagBuilder append(CharSequence csq, int start, int end) {
+            out.append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        @Deprecated
+        public TagBuilder append(char c) {
+            out.append(c);
+            return this;
+        }
+    }
+}
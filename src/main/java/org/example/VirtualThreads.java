@@ -0,0 +1,40 @@
+package org.example;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to JDK 21 virtual threads from code compiled for Java 8. The factory
+ * method is looked up reflectively; on older JDKs (or when virtual threads are
+ * still a preview feature) callers fall back to platform thread pools.
+ */
+final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    /** Whether this JVM can create a virtual-thread-per-task executor. */
+    static boolean isAvailable() {
+        ExecutorService executor = newPerTaskExecutorOrNull();
+        if (executor == null) {
+            return false;
+        }
+        executor.shutdown();
+        return true;
+    }
+
+    /**
+     * Returns {@code Executors.newVirtualThreadPerTaskExecutor()} when the
+     * running JDK supports it, {@code null} otherwise.
+     */
+    static ExecutorService newPerTaskExecutorOrNull() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // JDK 19/20 without --enable-preview throws UnsupportedOperationException
+            return null;
+        }
+    }
+}
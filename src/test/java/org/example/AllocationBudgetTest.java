@@ -0,0 +1,104 @@
+package org.example;
+import j2html.tags.DomContent;
+import j2html.tags.specialized.HeadTag;
+import j2html.tags.specialized.UlTag;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budgets for representative renders, measured with the thread's
+ * allocated-bytes counter. Each workload is warmed up first and the lowest
+ * per-operation average over several rounds is compared to its budget. Budgets
+ * are about 25% above the measured values, which leaves headroom for JIT and
+ * JVM differences but fails the build on real regressions.
+ */
+@Tag("allocation")
+class AllocationBudgetTest {
+    private static final int WARMUP = 2_000;
+    private static final int ROUNDS = 5;
+
+    @BeforeAll
+    static void requireAllocationTracking() {
+        assumeTrue(MeteredRender.allocatedBytes(Thread.currentThread().getId()) >= 0,
+                "thread allocation tracking is not supported by this JVM");
+    }
+
+    private static long bytesPerOperation(Supplier<?> workload, int iterations) {
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP / iterations + 10; i++) {
+            for (int j = 0; j < iterations; j++) {
+                assertNotNull(workload.get());
+            }
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = MeteredRender.allocatedBytes(threadId);
+            for (int i = 0; i < iterations; i++) {
+                workload.get();
+            }
+            best = Math.min(best, (MeteredRender.allocatedBytes(threadId) - before) / iterations);
+        }
+        return best;
+    }
+
+    private static void assertWithinBudget(String workload, long budget, long actual) {
+        assertTrue(actual <= budget, workload + " allocated " + actual + " bytes/op, budget is " + budget);
+    }
+
+    private static DomContent table1000Rows() {
+        return table(each(IntStream.range(0, 1000).boxed()
+                .map(i -> tr(td("Row " + i), td(String.valueOf(i * 3)), td("ok")))));
+    }
+
+    private static UlTag nestedList100Items() {
+        UlTag root = ul();
+        for (int i = 0; i < 10; i++) {
+            UlTag inner = ul();
+            for (int j = 0; j < 10; j++) {
+                inner.with(li("Item " + i + "." + j).withClass("item"));
+            }
+            root.with(li(span("Group " + i), inner));
+        }
+        return root;
+    }
+
+    private static HeadTag head20Tags() {
+        HeadTag head = head(title("Budget"));
+        for (int i = 0; i < 7; i++) {
+            head.with(meta().withName("meta-" + i).withContent("value " + i));
+            head.with(link().withRel("stylesheet").withHref("/css/style-" + i + ".css"));
+        }
+        for (int i = 0; i < 6; i++) {
+            head.with(script().withSrc("/js/app-" + i + ".js").isDefer());
+        }
+        return head;
+    }
+
+    @Test
+    public void testGenerateHtmlBudget() {
+        assertWithinBudget("Main.generateHtml()", 2_000, bytesPerOperation(Main::generateHtml, 1_000));
+    }
+
+    @Test
+    public void testTable1000RowsBudget() {
+        assertWithinBudget("1,000-row table", 1_550_000, bytesPerOperation(() -> table1000Rows().render(), 20));
+    }
+
+    @Test
+    public void testNestedList100ItemsBudget() {
+        assertWithinBudget("100-item nested list", 80_000, bytesPerOperation(() -> nestedList100Items().render(), 200));
+    }
+
+    @Test
+    public void testHead20TagsBudget() {
+        assertWithinBudget("head with 20 meta/link/script tags", 17_500, bytesPerOperation(() -> head20Tags().render(), 500));
+    }
+}
@@ -0,0 +1,104 @@
+package org.example;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedVariantsTest {
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int n; (n = in.read(buffer)) != -1; ) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        return readAll(new GZIPInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    /** Inflates the zlib format, which checks the header and the Adler-32 trailer. */
+    private static byte[] inflate(byte[] bytes) throws IOException {
+        return readAll(new InflaterInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testVariantsDecodeToIdentity() throws IOException {
+        CompressedVariants variants = Main.precompiledPage().variants();
+        byte[] identity = Main.precompiledPage().utf8Bytes();
+        assertArrayEquals(identity, variants.variant(ContentCoding.IDENTITY).bytes());
+        assertArrayEquals(identity, gunzip(variants.variant(ContentCoding.GZIP).bytes()));
+        assertArrayEquals(identity, inflate(variants.variant(ContentCoding.DEFLATE).bytes()));
+    }
+
+    @Test
+    public void testVariantsAreCachedUntilInvalidated() {
+        PrecompiledPage page = new PrecompiledPage(Main::page);
+        CompressedVariants variants = page.variants();
+        assertSame(variants, page.variants());
+        page.invalidate();
+        assertNotSame(variants, page.variants());
+    }
+
+    @Test
+    public void testStrongETags() {
+        CompressedVariants a = new CompressedVariants("<p>a</p>".getBytes(StandardCharsets.UTF_8));
+        CompressedVariants sameContent = new CompressedVariants("<p>a</p>".getBytes(StandardCharsets.UTF_8));
+        CompressedVariants b = new CompressedVariants("<p>b</p>".getBytes(StandardCharsets.UTF_8));
+        String etag = a.variant(ContentCoding.IDENTITY).etag();
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertEquals(etag, sameContent.variant(ContentCoding.IDENTITY).etag());
+        assertNotEquals(etag, b.variant(ContentCoding.IDENTITY).etag());
+        assertNotEquals(etag, a.variant(ContentCoding.GZIP).etag());
+        assertTrue(a.variant(ContentCoding.GZIP).matches("\"x\", " + a.variant(ContentCoding.GZIP).etag()));
+        assertTrue(a.variant(ContentCoding.IDENTITY).matches("*"));
+        assertFalse(a.variant(ContentCoding.IDENTITY).matches(null));
+    }
+
+    @Test
+    public void testNegotiation() {
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate(null));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("gzip, deflate, br"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("deflate, GZIP;q=1"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0, deflate"));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("gzip;q=0"));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("br"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("*"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0, *"));
+    }
+
+    @Test
+    public void testStreamingCompressorsReuseDeflaters() throws IOException {
+        byte[] page = Main.generateHtml().getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 20; i++) {
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+            try (OutputStream out = CompressingOutput.wrap(gzipped, ContentCoding.GZIP)) {
+                out.write(page, 0, 10);
+                out.write(page, 10, page.length - 10);
+            }
+            assertArrayEquals(page, gunzip(gzipped.toByteArray()));
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+            try (OutputStream out = CompressingOutput.wrap(deflated, ContentCoding.DEFLATE)) {
+                Main.generateHtml(out);
+            }
+            assertArrayEquals(page, inflate(deflated.toByteArray()));
+        }
+    }
+
+    @Test
+    public void testIdentityWrapIsPassThrough() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertSame(out, CompressingOutput.wrap(out, ContentCoding.IDENTITY));
+    }
+}
@@ -0,0 +1,120 @@
+package org.example;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Renders from many threads at once, released together, and checks every
+ * result against the output expected for that thread and iteration. Failures
+ * in worker threads fail the test instead of being swallowed.
+ */
+class ConcurrencyStressTest {
+    private static final int THREADS = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int ITERATIONS = 2_000;
+
+    @AfterEach
+    public void restoreGlobals() {
+        FastEscaper.useDefault();
+        MeteredRender.setMetrics(RenderMetrics.NOOP);
+        MeteredRender.setSampleInterval(MeteredRender.DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    private interface Work {
+        void run(int thread, int iteration) throws Exception;
+    }
+
+    private static void stress(ExecutorService service, Work work) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            tasks.add(() -> {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    work.run(thread, i);
+                }
+                return null;
+            });
+        }
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                results.add(service.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            throw new AssertionError("render failed under contention", e.getCause());
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    private static void stress(Work work) throws InterruptedException {
+        stress(Executors.newFixedThreadPool(THREADS), work);
+    }
+
+    private static String expected(int thread, int iteration) {
+        return "<div class=\"t" + thread + "\"><p>Item &lt;" + iteration + "&gt; &amp; &#x27;" + thread + "&#x27;</p></div>";
+    }
+
+    private static String render(int thread, int iteration) {
+        return div(p("Item <" + iteration + "> & '" + thread + "'")).withClass("t" + thread).render();
+    }
+
+    @Test
+    public void testPlainRenderIsCorrectUnderContention() throws InterruptedException {
+        stress((thread, i) -> assertEquals(expected(thread, i), render(thread, i)));
+    }
+
+    @Test
+    public void testGenerateHtmlWithMetricsAndPooledBuffers() throws InterruptedException {
+        JmxRenderMetrics metrics = new JmxRenderMetrics();
+        MeteredRender.setMetrics(metrics);
+        MeteredRender.setSampleInterval(1);
+        String expected = Main.page().render();
+        stress((thread, i) -> assertEquals(expected, Main.generateHtml()));
+        assertEquals((long) THREADS * ITERATIONS, metrics.getCount());
+    }
+
+    @Test
+    public void testGlobalFastEscaperUnderContention() throws InterruptedException {
+        FastEscaper.useGlobally();
+        stress((thread, i) -> assertEquals(expected(thread, i), render(thread, i)));
+    }
+
+    @Test
+    public void testUtf8RenderingUnderContention() throws InterruptedException {
+        stress((thread, i) -> assertEquals(expected(thread, i),
+                div(p("Item <" + i + "> & '" + thread + "'")).withClass("t" + thread)
+                        .render(Utf8Html.into(new Utf8Buffer(64))).toString()));
+    }
+
+    @Test
+    public void testFragmentCacheUnderContention() throws InterruptedException {
+        FragmentCache cache = new FragmentCache(4_096);
+        stress((thread, i) -> {
+            int model = (thread * 31 + i) % 200;
+            assertEquals("<li>Item " + model + "</li>", cache.get("li", model, () -> li("Item " + model)).render());
+        });
+        assertEquals((long) THREADS * ITERATIONS, cache.hits() + cache.misses());
+    }
+
+    @Test
+    public void testVirtualThreadsOrForkJoin() throws InterruptedException {
+        stress(PageBatchRenderer.newExecutor(), (thread, i) -> assertEquals(expected(thread, i), render(thread, i)));
+    }
+}
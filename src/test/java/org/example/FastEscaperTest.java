@@ -0,0 +1,89 @@
+package org.example;
+import j2html.Config;
+import j2html.utils.EscapeUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastEscaperTest {
+
+    @AfterEach
+    public void restoreDefaultEscaper() {
+        FastEscaper.useDefault();
+    }
+
+    @Test
+    public void testCleanTextIsReturnedAsIs() {
+        String text = "This is an example of using J2HTML in a Maven project.";
+        assertSame(text, FastEscaper.INSTANCE.escape(text));
+    }
+
+    @Test
+    public void testEscapesLikeEscapeUtil() {
+        String[] samples = {"", "<", "a&b", "\"quoted\"", "it's", "<script>alert('xss');</script>",
+                "&&&&", "tail>", "<head", "Grüße <ü> 😀 & more"};
+        for (String sample : samples) {
+            assertEquals(EscapeUtil.escape(sample), FastEscaper.INSTANCE.escape(sample), sample);
+        }
+        assertNull(FastEscaper.INSTANCE.escape(null));
+    }
+
+    @Test
+    public void testRandomStringsMatchEscapeUtil() {
+        Random random = new Random(42);
+        char[] alphabet = "ab <>&\"'é中😀".toCharArray();
+        for (int n = 0; n < 10_000; n++) {
+            char[] chars = new char[random.nextInt(40)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            String sample = new String(chars);
+            assertEquals(EscapeUtil.escape(sample), FastEscaper.INSTANCE.escape(sample));
+        }
+    }
+
+    @Test
+    public void testSelectableGlobally() {
+        FastEscaper.useGlobally();
+        assertSame(FastEscaper.INSTANCE, Config.global().textEscaper());
+        assertEquals("<button onclick=\"alert(&#x27;Clicked!&#x27;);\">Click me</button>",
+                button("Click me").attr("onclick", "alert('Clicked!');").render());
+        assertEquals("<div>&lt;div&gt;Hello &amp; Welcome&lt;/div&gt;</div>", div("<div>Hello & Welcome</div>").render());
+        assertEquals(Main.precompiledPage().html(), Main.generateHtml());
+    }
+
+    @Test
+    public void testNeedsEscaping() {
+        assertTrue(FastEscaper.needsEscaping('&'));
+        assertFalse(FastEscaper.needsEscaping('a'));
+        assertFalse(FastEscaper.needsEscaping('é'));
+    }
+
+    @Test
+    public void testUseDefaultRestoresConfigDefault() {
+        FastEscaper.useGlobally();
+        FastEscaper.useDefault();
+        assertSame(Config.defaults().textEscaper(), Config.textEscaper);
+    }
+
+    @Test
+    public void testRecognisesEquivalentEscapers() {
+        assertTrue(FastEscaper.isEquivalent(Config.textEscaper));
+        assertTrue(FastEscaper.isEquivalent(Config.defaults().textEscaper()));
+        assertTrue(FastEscaper.isEquivalent(FastEscaper.INSTANCE));
+        assertFalse(FastEscaper.isEquivalent(EscapeUtil::escape));
+        assertFalse(FastEscaper.isEquivalent(text -> text));
+        assertFalse(FastEscaper.isEquivalent(null));
+    }
+
+    @Test
+    public void testCustomGlobalEscaperIsNotEquivalent() {
+        Config.textEscaper = text -> text;
+        assertFalse(FastEscaper.isEquivalent(Config.textEscaper));
+        assertFalse(FastEscaper.isEquivalent(Config.global().textEscaper()));
+    }
+}
@@ -0,0 +1,92 @@
+package org.example;
+import j2html.Config;
+import j2html.tags.ContainerTag;
+import j2html.tags.DomContent;
+import j2html.utils.Indenter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormattedHtmlTest {
+    private static final Indenter DEFAULT_INDENTER = Config.indenter;
+
+    @AfterEach
+    public void restoreGlobals() {
+        Config.indenter = DEFAULT_INDENTER;
+        Config.closeEmptyTags = false;
+    }
+
+    static ContainerTag<?> nestedList(int depth) {
+        ContainerTag<?> list = ul(li("Level " + depth));
+        for (int level = depth - 1; level > 0; level--) {
+            list = ul(li("Level " + level).with(list));
+        }
+        return list;
+    }
+
+    private static ContainerTag<?>[] samples() {
+        return new ContainerTag<?>[]{
+                Main.page(),
+                div(),
+                ul(li("Level 1").with(ul(li("Level 2").with(ul(li("Level 3")))))),
+                nestedList(100),
+                form(input().withType("checkbox").isChecked(), br(), label("A & B").attr("for", "x")),
+                div(p("line one\nline two\n\nline four\n\n"), p("\n"), p(""), p("\nleading")),
+                div(pre("  keep\n    this\n"), p("after"), pre(code("x < y\n  z")), textarea("a\nb")),
+                div(rawHtml("<b>raw</b>\nsecond"), script("if (a < b) {\n  go();\n}"), span().attr("data-x", "'q'")),
+                table(each(IntStream.range(0, 50).boxed().map(i -> tr(td("Row " + i), td("<" + i + ">")))))
+        };
+    }
+
+    private static void assertMatchesRenderFormatted() {
+        for (ContainerTag<?> sample : samples()) {
+            String expected = sample.renderFormatted();
+            assertEquals(expected, FormattedHtml.render(sample));
+        }
+    }
+
+    @Test
+    public void testMatchesRenderFormatted() {
+        assertMatchesRenderFormatted();
+    }
+
+    @Test
+    public void testMatchesRenderFormattedWithSelfClosingTags() {
+        Config.closeEmptyTags = true;
+        assertMatchesRenderFormatted();
+    }
+
+    @Test
+    public void testHonoursCustomIndenter() {
+        Config.indenter = (level, text) -> level + ">" + text;
+        assertMatchesRenderFormatted();
+    }
+
+    @Test
+    public void testRecognisesBuiltInIndenters() {
+        assertTrue(FormattedHtml.isDefault(Config.indenter));
+        assertTrue(FormattedHtml.isDefault(Config.defaults().indenter()));
+        assertFalse(FormattedHtml.isDefault((level, text) -> text));
+    }
+
+    @Test
+    public void testIndentsBeyondTheTable() {
+        String formatted = FormattedHtml.render(nestedList(1000));
+        assertEquals(nestedList(1000).renderFormatted(), formatted);
+        StringBuilder deepest = new StringBuilder();
+        for (int i = 0; i < 2 * 1000; i++) {
+            deepest.append("    ");
+        }
+        assertTrue(formatted.contains("\n" + deepest + "Level 1000\n"));
+    }
+
+    @Test
+    public void testRendersAnyContent() {
+        DomContent fragment = each(li("a"), li("b"));
+        assertEquals("<li>\n    a\n</li>\n<li>\n    b\n</li>\n", FormattedHtml.render(fragment));
+    }
+}
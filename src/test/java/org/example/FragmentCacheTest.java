@@ -0,0 +1,192 @@
+package org.example;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FragmentCacheTest {
+
+    @Test
+    public void testCachedFragmentIsInsertedWithoutEscaping() {
+        FragmentCache cache = new FragmentCache(10_000);
+        String html = body(
+                cache.get("nav", "home", () -> ul(li(a("Home & Away").withHref("/")))),
+                p("Content")
+        ).render();
+        assertEquals("<body><ul><li><a href=\"/\">Home &amp; Away</a></li></ul><p>Content</p></body>", html);
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        FragmentCache cache = new FragmentCache(10_000);
+        AtomicInteger renders = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            cache.get("footer", 2024, () -> {
+                renders.incrementAndGet();
+                return footer("© 2024");
+            });
+        }
+        cache.get("footer", 2025, () -> footer("© 2025"));
+        assertEquals(1, renders.get());
+        assertEquals(4, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testComponentIdSeparatesEqualModels() {
+        FragmentCache cache = new FragmentCache(10_000);
+        assertEquals("<li>a</li>", cache.get("item", 1, () -> li("a")).render());
+        assertEquals("<dt>a</dt>", cache.get("term", 1, () -> dt("a")).render());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        FragmentCache cache = new FragmentCache(30);
+        cache.get("p", 1, () -> p("one"));
+        cache.get("p", 2, () -> p("two"));
+        cache.get("p", 1, () -> p("one"));
+        cache.get("p", 3, () -> p("three"));
+        assertEquals(1, cache.evictions());
+        assertTrue(cache.weightedSize() <= 30);
+        AtomicInteger renders = new AtomicInteger();
+        cache.get("p", 1, () -> {
+            renders.incrementAndGet();
+            return p("one");
+        });
+        assertEquals(0, renders.get());
+        cache.get("p", 2, () -> {
+            renders.incrementAndGet();
+            return p("two");
+        });
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    public void testOversizedFragmentIsStillReturned() {
+        FragmentCache cache = new FragmentCache(5);
+        assertEquals("<p>much longer than five</p>", cache.get("p", 1, () -> p("much longer than five")).render());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testWeightNeverExceedsBudget() {
+        FragmentCache cache = new FragmentCache(1_000);
+        for (int i = 0; i < 5_000; i++) {
+            int model = i % 400;
+            cache.get("li", model, () -> li("Item " + model));
+            assertTrue(cache.weightedSize() <= 1_000, "weighted size " + cache.weightedSize());
+        }
+        assertTrue(cache.evictions() > 0);
+    }
+
+    @Test
+    public void testInvalidateDuringRenderDropsTheStaleFragment() throws Exception {
+        FragmentCache cache = new FragmentCache(10_000);
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> stale = service.submit(() -> cache.get("nav", 1, () -> {
+                rendering.countDown();
+                await(invalidated);
+                return nav("old");
+            }).render());
+            rendering.await();
+            cache.invalidate("nav");
+            invalidated.countDown();
+            assertEquals("<nav>old</nav>", stale.get());
+        } finally {
+            service.shutdown();
+        }
+        assertEquals("<nav>new</nav>", cache.get("nav", 1, () -> nav("new")).render());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testInvalidateComponent() {
+        FragmentCache cache = new FragmentCache(10_000);
+        cache.get("nav", 1, () -> nav("a"));
+        cache.get("nav", 2, () -> nav("b"));
+        cache.get("footer", 1, () -> footer("c"));
+        cache.invalidate("nav");
+        assertEquals(1, cache.size());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weightedSize());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        FragmentCache cache = new FragmentCache(1_000_000);
+        ExecutorService service = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tasks.add(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    int model = i % 50;
+                    String html = cache.get("li", model, () -> li("Item " + model)).render();
+                    if (!html.equals("<li>Item " + model + "</li>")) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+        }
+        try {
+            for (Future<Boolean> result : service.invokeAll(tasks)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            service.shutdown();
+        }
+        assertEquals(16_000, cache.hits() + cache.misses());
+        assertEquals(50, cache.size());
+    }
+
+    @Test
+    public void testEvictionUnderConcurrentHits() throws Exception {
+        FragmentCache cache = new FragmentCache(20_000);
+        ExecutorService service = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            tasks.add(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    // a few hot models are hit constantly while the rest churn through eviction
+                    int model = i % 4 == 0 ? (i + seed) % 5_000 : i % 16;
+                    String html = cache.get("li", model, () -> li("Item " + model)).render();
+                    if (!html.equals("<li>Item " + model + "</li>")) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+        }
+        try {
+            for (Future<Boolean> result : service.invokeAll(tasks)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            service.shutdown();
+        }
+        assertTrue(cache.evictions() > 0);
+        assertTrue(cache.weightedSize() <= 20_000, "weighted size " + cache.weightedSize());
+    }
+}
@@ -0,0 +1,201 @@
+package org.example;
+import j2html.Config;
+import j2html.rendering.FlatHtml;
+import j2html.rendering.IndentedHtml;
+import j2html.utils.EscapeUtil;
+import j2html.tags.specialized.DivTag;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrozenHtmlTest {
+
+    @AfterEach
+    public void restoreEscaper() {
+        FastEscaper.useDefault();
+    }
+
+    private static DivTag card() {
+        return div(
+                h2("Title & <more>").withClass("title"),
+                ul(li("One"), li(a("Two").withHref("/two?a=1&b=2")).withId("second")),
+                input().withType("checkbox").isChecked(),
+                rawHtml("<!-- raw -->")
+        ).withId("card").withClass("card");
+    }
+
+    @Test
+    public void testFrozenTreeRendersLikeTheOriginal() {
+        assertEquals(card().render(), FrozenHtml.freeze(card()).render());
+        assertEquals(Main.page().render(), FrozenHtml.freeze(Main.page()).render());
+        assertEquals(document(Main.page()), FrozenHtml.freeze(rawHtml(document(Main.page()))).render());
+    }
+
+    @Test
+    public void testRenderingWithAConfigDoesNotWalkTheTreeAgain() throws Exception {
+        AtomicInteger escaped = new AtomicInteger();
+        Config config = Config.global().withTextEscaper(text -> {
+            escaped.incrementAndGet();
+            return EscapeUtil.escape(text);
+        });
+        FrozenHtml frozen = FrozenHtml.freeze(card());
+        String first = frozen.render(config);
+        int walked = escaped.get();
+        assertTrue(walked > 0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(first, frozen.renderInto(new StringBuilder(), config).toString());
+            assertEquals(first, new String(frozen.render(Utf8Html.into(new Utf8Buffer(), config)).toByteArray(),
+                    StandardCharsets.UTF_8));
+        }
+        assertEquals(walked, escaped.get());
+        assertEquals(card().render(), first);
+    }
+
+    @Test
+    public void testCachedMarkupFollowsTheConfig() throws Exception {
+        FrozenHtml frozen = FrozenHtml.freeze(div(br(), p("a & b")));
+        Config config = Config.global().withEmptyTagsClosed(true).withTextEscaper(String::toUpperCase);
+        assertEquals("<div><br><p>a &amp; b</p></div>", frozen.render());
+        assertEquals("<div><br/><p>A & B</p></div>", frozen.render(config));
+        assertEquals("<div><br><p>a &amp; b</p></div>", frozen.render());
+        // other builders are walked, so they apply their own settings
+        assertEquals("<div><br/><p>A & B</p></div>", frozen.render(FlatHtml.into(new StringBuilder(), config)).toString());
+    }
+
+    @Test
+    public void testFormattedRenderingMatches() throws Exception {
+        assertEquals(card().renderFormatted(), FrozenHtml.freeze(card()).render(IndentedHtml.inMemory()).toString());
+    }
+
+    @Test
+    public void testFragmentsAreFrozenAsAWhole() {
+        FrozenHtml frozen = FrozenHtml.freeze(each(li("a"), li("b"), text("c")));
+        assertEquals("<li>a</li><li>b</li>c", frozen.render());
+        assertNull(frozen.tagName());
+        assertEquals(3, frozen.childCount());
+    }
+
+    @Test
+    public void testLaterChangesToTheOriginalAreNotSeen() {
+        DivTag original = card();
+        FrozenHtml frozen = FrozenHtml.freeze(original);
+        String before = frozen.render();
+        original.withClass("changed").with(p("extra"));
+        assertEquals(before, frozen.render());
+    }
+
+    @Test
+    public void testRenderIsCached() {
+        FrozenHtml frozen = FrozenHtml.freeze(card());
+        assertSame(frozen.render(), frozen.render());
+    }
+
+    @Test
+    public void testCacheFollowsGlobalEscaper() {
+        FrozenHtml frozen = FrozenHtml.freeze(card());
+        String rendered = frozen.render();
+        FastEscaper.useGlobally();
+        assertNotSame(rendered, frozen.render());
+        assertEquals(rendered, frozen.render());
+    }
+
+    @Test
+    public void testAccessors() {
+        FrozenHtml frozen = FrozenHtml.freeze(card());
+        assertEquals("div", frozen.tagName());
+        assertEquals("card", frozen.attribute("class"));
+        assertEquals(4, frozen.childCount());
+        FrozenHtml checkbox = frozen.child(2);
+        assertEquals("input", checkbox.tagName());
+        assertTrue(checkbox.hasAttribute("checked"));
+        assertNull(checkbox.attribute("checked"));
+        assertFalse(checkbox.hasAttribute("disabled"));
+    }
+
+    @Test
+    public void testWithAttributeSharesChildren() {
+        FrozenHtml frozen = FrozenHtml.freeze(card());
+        FrozenHtml variant = frozen.withAttribute("class", "card active").withAttribute("data-x", "1");
+        assertEquals(card().withClass("card active").attr("data-x", "1").render(), variant.render());
+        assertEquals(card().render(), frozen.render());
+        for (int i = 0; i < frozen.childCount(); i++) {
+            assertSame(frozen.child(i), variant.child(i));
+        }
+        assertSame(frozen, frozen.withAttribute("id", "card"));
+        assertEquals(card().render().replace(" id=\"card\"", ""), frozen.withoutAttribute("id").render());
+    }
+
+    @Test
+    public void testWithUpdatedByIdCopiesOnlyThePath() {
+        FrozenHtml frozen = FrozenHtml.freeze(card());
+        FrozenHtml variant = frozen.withUpdatedById("second", li -> li.withAppended(span("new")));
+        assertTrue(variant.render().contains("<li id=\"second\"><a href=\"/two?a=1&amp;b=2\">Two</a><span>new</span></li>"));
+        assertSame(frozen.child(0), variant.child(0));
+        assertSame(frozen.child(2), variant.child(2));
+        assertNotSame(frozen.child(1), variant.child(1));
+        assertSame(frozen.child(1).child(0), variant.child(1).child(0));
+        assertSame(frozen, frozen.withUpdatedById("missing", li -> li.withAttribute("x", "y")));
+    }
+
+    @Test
+    public void testWithChildReplacesAndShares() {
+        FrozenHtml frozen = FrozenHtml.freeze(card());
+        FrozenHtml variant = frozen.withChild(0, h2("Other"));
+        assertTrue(variant.render().startsWith("<div id=\"card\" class=\"card\"><h2>Other</h2><ul>"));
+        assertSame(frozen.child(1), variant.child(1));
+    }
+
+    @Test
+    public void testFrozenSubtreesAreSharedWhenEmbedded() {
+        FrozenHtml nav = FrozenHtml.freeze(nav(a("Home").withHref("/")));
+        FrozenHtml page = FrozenHtml.freeze(body(nav, main("content")));
+        assertSame(nav, page.child(0));
+        assertEquals("<body><nav><a href=\"/\">Home</a></nav><main>content</main></body>", page.render());
+        assertEquals("<div><nav><a href=\"/\">Home</a></nav></div>", div(nav).render());
+    }
+
+    @Test
+    public void testTextAndEmptyElementsCannotHaveChildren() {
+        FrozenHtml checkbox = FrozenHtml.freeze(input());
+        assertThrows(IllegalStateException.class, () -> checkbox.withAppended(text("x")));
+        assertThrows(IllegalStateException.class, () -> FrozenHtml.freeze(text("x")).withAttribute("a", "b"));
+    }
+
+    @Test
+    public void testSharedAcrossThreads() throws Exception {
+        FrozenHtml frozen = FrozenHtml.freeze(Main.page());
+        String expected = Main.page().render();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int n = t;
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        if (!expected.equals(frozen.render())
+                                || !frozen.withAttribute("lang", "l" + n).render().startsWith("<html lang=\"l" + n + "\">")) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(expected, frozen.render());
+    }
+}
@@ -0,0 +1,153 @@
+package org.example;
+import j2html.rendering.FlatHtml;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class HtmlFragmentReaderTest {
+    private static final Pattern EXPECTED_MARKUP =
+            Pattern.compile("(?:assertEquals\\(\\s*|String \\w+ = )\"(<(?:[^\"\\\\]|\\\\.)*)\"\\s*[,;]");
+
+    private static void assertRoundTrip(String html) {
+        assertEquals(html, HtmlFragmentReader.parse(html).render(), html);
+        assertEquals(html, HtmlFragmentReader.read(html, FlatHtml.inMemory()).toString(), html);
+    }
+
+    private static String unescapeJava(String literal) {
+        StringBuilder out = new StringBuilder(literal.length());
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            char next = literal.charAt(++i);
+            switch (next) {
+                case 'n': out.append('\n'); break;
+                case 't': out.append('\t'); break;
+                case 'r': out.append('\r'); break;
+                case 'u':
+                    out.append((char) Integer.parseInt(literal.substring(i + 1, i + 5), 16));
+                    i += 4;
+                    break;
+                default: out.append(next);
+            }
+        }
+        return out.toString();
+    }
+
+    @Test
+    public void testRoundTripsExpectedMarkupFromMainTest() throws IOException {
+        Path source = Paths.get("src/test/java/org/example/MainTest.java");
+        assumeTrue(Files.exists(source), "MainTest source not available");
+        Matcher matcher = EXPECTED_MARKUP.matcher(new String(Files.readAllBytes(source), StandardCharsets.UTF_8));
+        List<String> expectations = new ArrayList<>();
+        while (matcher.find()) {
+            expectations.add(unescapeJava(matcher.group(1)));
+        }
+        assertTrue(expectations.size() > 100, "found " + expectations.size());
+        for (String html : expectations) {
+            assertRoundTrip(html);
+        }
+    }
+
+    @Test
+    public void testRoundTripsRenderedTrees() {
+        assertRoundTrip(Main.generateHtml());
+        assertRoundTrip(document(Main.page()));
+        assertRoundTrip(Main.page().renderFormatted());
+        assertRoundTrip(table(each(IntStream.range(0, 100).boxed()
+                .map(i -> tr(td("Row <" + i + ">"), td("'q' & \"dq\""))))).render());
+        assertRoundTrip(form(input().withType("checkbox").isChecked(), br(), label("A & B").attr("for", "x")).render());
+        assertRoundTrip(script("if (a < b && c > d) { alert('x'); }").render());
+        assertRoundTrip(div(rawHtml("<b>raw</b> a > b &nbsp; &copy;"), rawHtml("<!-- note -->")).render());
+    }
+
+    @Test
+    public void testBuildsTreesThatCanBePatched() {
+        String cached = div(h2("Title"), a("More").withHref("/more?a=1&b=2").withId("more")).withClass("card").render();
+        FrozenHtml tree = HtmlFragmentReader.parse(cached);
+        assertEquals("div", tree.tagName());
+        assertEquals("/more?a=1&b=2", tree.child(1).attribute("href"));
+        assertEquals("Title", tree.child(0).child(0).render());
+        FrozenHtml patched = tree.withUpdatedById("more", link -> link.withAttribute("href", "/other?x=<y>"));
+        assertEquals(div(h2("Title"), a("More").withHref("/other?x=<y>").withId("more")).withClass("card").render(),
+                patched.render());
+    }
+
+    @Test
+    public void testVoidAndSelfClosingTags() {
+        FrozenHtml tree = HtmlFragmentReader.parse("<p>a<br>b<img src=\"x.png\"/><x-icon/></p>");
+        assertEquals(5, tree.childCount());
+        assertEquals("br", tree.child(1).tagName());
+        assertEquals("<p>a<br>b<img src=\"x.png\"><x-icon></p>", tree.render());
+    }
+
+    @Test
+    public void testLenientAttributeSyntax() {
+        FrozenHtml tree = HtmlFragmentReader.parse("<input type=text value='it&apos;s &#60;ok&#x3E;' disabled>");
+        assertEquals("text", tree.attribute("type"));
+        assertEquals("it's <ok>", tree.attribute("value"));
+        assertTrue(tree.hasAttribute("disabled"));
+        assertEquals("<input type=\"text\" value=\"it&#x27;s &lt;ok&gt;\" disabled>", tree.render());
+    }
+
+    @Test
+    public void testNamedReferencesInAttributesAreDecoded() {
+        String html = "<div><a id=\"x\" title=\"&copy; 2024 &amp; co\" href=\"/x\"><b>Home &amp; away</b></a><hr title=\"&nbsp;\"></div>";
+        FrozenHtml tree = HtmlFragmentReader.parse(html);
+        assertEquals("a", tree.child(0).tagName());
+        assertEquals("\u00A9 2024 & co", tree.child(0).attribute("title"));
+        assertEquals("b", tree.child(0).child(0).tagName());
+        assertEquals("\u00A0", tree.child(1).attribute("title"));
+        assertEquals("<div><a id=\"x\" title=\"\u00A9 2024 &amp; co\" href=\"/y\"><b>Home &amp; away</b></a><hr title=\"\u00A0\"></div>",
+                tree.withUpdatedById("x", link -> link.withAttribute("href", "/y")).render());
+        assertEquals("\u2026", HtmlFragmentReader.parse("<li data-x=\"&hellip;\">a</li>").attribute("data-x"));
+        assertEquals("<div title=\"a &amp; b\"></div>", HtmlFragmentReader.parse("<div title=\"a & b\"></div>").render());
+    }
+
+    @Test
+    public void testReferencesAreDecodedLikeABrowser() {
+        // unknown names stay as they are; a legacy name without ';' only counts if no letter, digit or '=' follows
+        assertEquals("&nosuch; \u00A9 x", HtmlFragmentReader.parse("<a title=\"&nosuch; &copy x\"></a>").attribute("title"));
+        assertEquals("?a=1&copy=2&notit", HtmlFragmentReader.parse("<a href=\"?a=1&copy=2&notit\"></a>").attribute("href"));
+        assertEquals("\u2AD9\uD835\uDD04 &#; &#xZ;", HtmlFragmentReader.parse(
+                "<a title=\"&forkv;&Afr; &#; &#xZ;\"></a>").attribute("title"));
+    }
+
+    @Test
+    public void testUnclosedAndUnmatchedTags() {
+        assertEquals("<div><p>text</p></div>", HtmlFragmentReader.parse("<div><p>text").render());
+        assertEquals("<div>a</span>b</div>", HtmlFragmentReader.parse("<div>a</span>b</div>").render());
+        assertEquals("<ul><li>a</li></ul>", HtmlFragmentReader.parse("<ul><li>a</ul>").render());
+    }
+
+    @Test
+    public void testStrayAngleBracketsStayText() {
+        assertRoundTrip("a < b");
+        assertRoundTrip("<p>1 <2</p>");
+        assertEquals("<p>tail<</p>", HtmlFragmentReader.parse("<p>tail<").render());
+        assertEquals("x <div", HtmlFragmentReader.parse("x <div").render());
+    }
+
+    @Test
+    public void testTopLevelNodesBecomeAFragment() {
+        FrozenHtml tree = HtmlFragmentReader.parse("<li>a</li>text<li>b</li>");
+        assertNull(tree.tagName());
+        assertEquals(3, tree.childCount());
+        assertEquals("", HtmlFragmentReader.parse("").render());
+    }
+}
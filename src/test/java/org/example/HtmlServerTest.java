@@ -0,0 +1,109 @@
+package org.example;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlServerTest {
+    private HtmlServer server;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = new HtmlServer(0, Main.precompiledPage()).start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop();
+    }
+
+    private HttpURLConnection open(String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.port() + "/").openConnection();
+        connection.setRequestMethod(method);
+        return connection;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int n; (n = in.read(buffer)) != -1; ) {
+            out.write(buffer, 0, n);
+        }
+        in.close();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testServesGeneratedPage() throws IOException {
+        HttpURLConnection connection = open("GET");
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("text/html; charset=utf-8", connection.getContentType());
+        assertNull(connection.getContentEncoding());
+        assertEquals(Main.generateHtml(), read(connection.getInputStream()));
+    }
+
+    @Test
+    public void testServesGzipWhenAccepted() throws IOException {
+        HttpURLConnection connection = open("GET");
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("gzip", connection.getContentEncoding());
+        assertEquals(Main.generateHtml(), read(new GZIPInputStream(connection.getInputStream())));
+    }
+
+    @Test
+    public void testRepeatedRequests() throws IOException {
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Main.generateHtml(), read(open("GET").getInputStream()));
+        }
+    }
+
+    @Test
+    public void testHeadHasNoBody() throws IOException {
+        HttpURLConnection connection = open("HEAD");
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(Main.precompiledPage().utf8Length(), connection.getContentLengthLong());
+    }
+
+    @Test
+    public void testRejectsPost() throws IOException {
+        HttpURLConnection connection = open("POST");
+        assertEquals(405, connection.getResponseCode());
+        assertEquals("GET, HEAD", connection.getHeaderField("Allow"));
+    }
+
+    @Test
+    public void testServesDeflateWhenPreferred() throws IOException {
+        HttpURLConnection connection = open("GET");
+        connection.setRequestProperty("Accept-Encoding", "gzip;q=0.5, deflate");
+        assertEquals("deflate", connection.getContentEncoding());
+        assertEquals(Main.generateHtml(), read(new InflaterInputStream(connection.getInputStream())));
+    }
+
+    @Test
+    public void testConditionalRequestWithETag() throws IOException {
+        HttpURLConnection first = open("GET");
+        String etag = first.getHeaderField("ETag");
+        read(first.getInputStream());
+        assertNotNull(etag);
+        HttpURLConnection second = open("GET");
+        second.setRequestProperty("If-None-Match", etag);
+        assertEquals(304, second.getResponseCode());
+        HttpURLConnection gzipped = open("GET");
+        gzipped.setRequestProperty("Accept-Encoding", "gzip");
+        gzipped.setRequestProperty("If-None-Match", etag);
+        assertEquals(200, gzipped.getResponseCode());
+        assertNotEquals(etag, gzipped.getHeaderField("ETag"));
+        read(gzipped.getInputStream());
+    }
+}
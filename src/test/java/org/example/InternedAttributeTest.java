@@ -0,0 +1,122 @@
+package org.example;
+import j2html.Config;
+import j2html.rendering.FlatHtml;
+import j2html.tags.specialized.DivTag;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InternedAttributeTest {
+
+    @AfterEach
+    public void restoreEscaper() {
+        FastEscaper.useDefault();
+    }
+
+    private static DivTag interned() {
+        return div(
+                a("Docs").attr(InternedAttribute.of("href", "/docs?a=1&b=2")).attr(InternedAttribute.of("target", "_blank")),
+                input().attr(InternedAttribute.of("type", "checkbox")).attr(InternedAttribute.of("checked", null)),
+                span("x").attr(InternedAttribute.of("title", "\"quoted\" <b>"))
+        ).attr(InternedAttribute.of("class", "container"));
+    }
+
+    private static DivTag plain() {
+        return div(
+                a("Docs").withHref("/docs?a=1&b=2").withTarget("_blank"),
+                input().withType("checkbox").isChecked(),
+                span("x").withTitle("\"quoted\" <b>")
+        ).withClass("container");
+    }
+
+    @Test
+    public void testRendersLikePlainAttributes() {
+        assertEquals(plain().render(), interned().render());
+        assertEquals(plain().renderFormatted(), interned().renderFormatted());
+    }
+
+    @Test
+    public void testUtf8RenderingMatches() throws IOException {
+        Utf8Buffer buffer = interned().render(Utf8Html.into(new Utf8Buffer(64)));
+        assertArrayEquals(plain().render().getBytes(StandardCharsets.UTF_8), buffer.toByteArray());
+    }
+
+    @Test
+    public void testFastEscaperGloballyStillUsesPreEscapedForm() throws IOException {
+        FastEscaper.useGlobally();
+        assertEquals(plain().render(), interned().render());
+        Utf8Buffer buffer = interned().render(Utf8Html.into(new Utf8Buffer(64), Config.global()));
+        assertArrayEquals(plain().render().getBytes(StandardCharsets.UTF_8), buffer.toByteArray());
+    }
+
+    @Test
+    public void testCustomEscaperIsRespected() throws IOException {
+        Config.textEscaper = text -> text.toUpperCase();
+        try {
+            assertEquals("<div class=\"CONTAINER\"></div>", div().attr(InternedAttribute.of("class", "container")).render());
+            assertEquals("<p class=\"CONTAINER\"></p>", p().attr(InternedAttribute.of("class", "container"))
+                    .render(Utf8Html.into(new Utf8Buffer(16), Config.global())).toString());
+        } finally {
+            FastEscaper.useDefault();
+        }
+    }
+
+    @Test
+    public void testNameAndValueStringsAreShared() {
+        InternedAttribute first = InternedAttribute.of(new String("class"), new String("container"));
+        InternedAttribute second = InternedAttribute.of("class", "container");
+        assertSame(first.getName(), second.getName());
+        assertSame(first.getValue(), second.getValue());
+        assertTrue(first.isInterned());
+    }
+
+    @Test
+    public void testRegisteredValuesAreInterned() {
+        assertFalse(InternedAttribute.of("data-section", "pricing").isInterned());
+        InternedAttribute.register("data-section", "pricing", "faq");
+        InternedAttribute first = InternedAttribute.of("data-section", new String("pricing"));
+        assertTrue(first.isInterned());
+        assertSame(first.getValue(), InternedAttribute.of("data-section", new String("pricing")).getValue());
+        assertEquals("<section data-section=\"faq\"></section>",
+                section().attr(InternedAttribute.of("data-section", "faq")).render());
+    }
+
+    @Test
+    public void testBuilderEscaperIsRespected() throws IOException {
+        Config upperCase = Config.global().withTextEscaper(text -> text.toUpperCase());
+        assertEquals("<div class=\"CONTAINER\"></div>", div().attr(InternedAttribute.of("class", "container"))
+                .render(FlatHtml.into(new StringBuilder(), upperCase)).toString());
+        assertEquals("<p class=\"CONTAINER\"></p>", p().attr(InternedAttribute.of("class", "container"))
+                .render(Utf8Html.into(new Utf8Buffer(16), upperCase)).toString());
+        FastEscaper.useGlobally();
+        assertEquals("<div class=\"container\"></div>", div().attr(InternedAttribute.of("class", "container"))
+                .render(FlatHtml.into(new StringBuilder(), Config.defaults())).toString());
+    }
+
+    @Test
+    public void testChangingTheValueAffectsOnlyThatTag() {
+        DivTag changed = div().attr(InternedAttribute.of("class", "container")).withClass("row & more");
+        assertEquals("<div class=\"row &amp; more\"></div>", changed.render());
+        assertEquals("<div class=\"container\"></div>", div().attr(InternedAttribute.of("class", "container")).render());
+    }
+
+    @Test
+    public void testUnregisteredValuesAreNotInterned() {
+        for (int i = 0; i < 300; i++) {
+            InternedAttribute attribute = InternedAttribute.of("data-row", "r" + i);
+            assertEquals("<tr data-row=\"r" + i + "\"></tr>", tr().attr(attribute).render());
+            assertFalse(attribute.isInterned());
+        }
+        assertFalse(InternedAttribute.of("class", "user-supplied").isInterned());
+    }
+
+    @Test
+    public void testFrozenTreesKeepInternedAttributes() {
+        assertEquals(plain().render(), FrozenHtml.freeze(interned()).render());
+    }
+}
@@ -0,0 +1,53 @@
+package org.example;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100, histogram.count());
+        assertEquals(50, histogram.percentile(50));
+        assertEquals(99, histogram.percentile(99));
+        assertEquals(100, histogram.percentile(100));
+    }
+
+    @Test
+    public void testLargeValuesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(50_000_000, histogram.percentile(50), 50_000_000 * 0.016);
+        assertEquals(99_900_000, histogram.percentile(99.9), 99_900_000 * 0.016);
+        assertEquals(100_000_000, histogram.max());
+    }
+
+    @Test
+    public void testBucketsAreContiguous() {
+        for (long v = 0; v < 1 << 16; v++) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= v);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestEquivalentValue(index - 1) < v);
+            }
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testEmptyAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(99));
+        histogram.record(500);
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(0));
+    }
+}
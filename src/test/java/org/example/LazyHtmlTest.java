@@ -0,0 +1,94 @@
+package org.example;
+import j2html.tags.DomContent;
+import j2html.tags.specialized.UlTag;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class LazyHtmlTest {
+
+    @Test
+    public void testConditionalRenderingMatchesEagerVersion() {
+        for (boolean condition : new boolean[]{true, false}) {
+            UlTag eager = ul(li("Always Visible"), condition ? li("Visible Item") : text(""));
+            UlTag lazy = ul(li("Always Visible"), LazyHtml.when(condition, () -> li("Visible Item")));
+            assertEquals(eager.render(), lazy.render());
+        }
+    }
+
+    @Test
+    public void testSkippedBlockLeavesNoBlankLineWhenFormatted() {
+        assertEquals(ul(li("Always Visible")).renderFormatted(),
+                ul(li("Always Visible"), LazyHtml.when(false, () -> li("Visible Item"))).renderFormatted());
+        assertEquals(ul(li("Always Visible"), li("Visible Item")).renderFormatted(),
+                ul(li("Always Visible"), LazyHtml.when(true, () -> li("Visible Item"))).renderFormatted());
+    }
+
+    @Test
+    public void testSkippedSubtreeIsNeverBuilt() {
+        AtomicInteger builds = new AtomicInteger();
+        DomContent node = LazyHtml.when(false, () -> {
+            builds.incrementAndGet();
+            return li("never");
+        });
+        assertSame(LazyHtml.empty(), node);
+        assertEquals("<ul></ul>", ul(node).render());
+        assertEquals("", node.render());
+        assertEquals(0, builds.get());
+    }
+
+    @Test
+    public void testSubtreeIsBuiltAtRenderTimeOnly() {
+        AtomicInteger builds = new AtomicInteger();
+        DomContent node = LazyHtml.lazy(() -> p("Build " + builds.incrementAndGet()));
+        assertEquals(0, builds.get());
+        DomContent page = div(node);
+        assertEquals("<div><p>Build 1</p></div>", page.render());
+        assertEquals("<div><p>Build 2</p></div>", page.render());
+    }
+
+    @Test
+    public void testGuardIsCheckedOnEveryRender() {
+        AtomicBoolean flag = new AtomicBoolean();
+        DomContent page = div(p("Body"), LazyHtml.when(flag::get, () -> aside("Beta feature")));
+        assertEquals("<div><p>Body</p></div>", page.render());
+        flag.set(true);
+        assertEquals("<div><p>Body</p><aside>Beta feature</aside></div>", page.render());
+    }
+
+    @Test
+    public void testNullSubtreeRendersNothing() {
+        assertEquals("<div></div>", div(LazyHtml.lazy(() -> null)).render());
+    }
+
+    @Test
+    public void testFrozenTreesCaptureTheCurrentResult() {
+        assertEquals("<div><b>x</b></div>", FrozenHtml.freeze(div(LazyHtml.lazy(() -> b("x")))).render());
+        assertEquals("<div></div>", FrozenHtml.freeze(div(LazyHtml.when(false, () -> b("x")))).render());
+    }
+
+    @Test
+    @Tag("allocation")
+    public void testSkippedBlocksDoNotAllocate() {
+        long threadId = Thread.currentThread().getId();
+        assumeTrue(MeteredRender.allocatedBytes(threadId) >= 0, "thread allocation tracking is not supported by this JVM");
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 20; round++) {
+            long before = MeteredRender.allocatedBytes(threadId);
+            for (int i = 0; i < 10_000; i++) {
+                DomContent skipped = LazyHtml.when(false, () -> li(span("Feature ").withClass("flag"), b("off")));
+                if (skipped != LazyHtml.empty()) {
+                    fail("expected the shared empty node");
+                }
+            }
+            best = Math.min(best, MeteredRender.allocatedBytes(threadId) - before);
+        }
+        assertEquals(0, best / 10_000, "bytes per skipped block");
+    }
+}
@@ -0,0 +1,92 @@
+package org.example;
+import j2html.tags.DomContent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedHtmlFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRendersTreeAndTruncatesToSize() throws IOException {
+        Path path = dir.resolve("page.html");
+        DomContent page = Main.page();
+        byte[] expected = page.render().getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected.length, MappedHtmlFile.render(page, path));
+        assertArrayEquals(expected, Files.readAllBytes(path));
+    }
+
+    @Test
+    public void testRemapsAcrossSmallChunks() throws IOException {
+        String text = "Grüße <ü> € 😀 & 'quotes' \"double\" \uD800 lone \uDC00 end";
+        DomContent table = table(each(IntStream.range(0, 2000).boxed().map(i -> tr(td("Row " + i), td(text)))));
+        Path path = dir.resolve("table.html");
+        for (int chunkSize : new int[]{4096, 4097, 4098, 4099, 1 << 20}) {
+            try (MappedHtmlFile file = new MappedHtmlFile(path, chunkSize)) {
+                file.append(table.render());
+                file.append('\uD83D').append('\uDE00');
+            }
+            assertArrayEquals((table.render() + "😀").getBytes(StandardCharsets.UTF_8), Files.readAllBytes(path),
+                    "chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    public void testStreamsTableRows() throws IOException {
+        StreamingTable<Integer> table = new StreamingTable<Integer>()
+                .withClass("report")
+                .withColumn("Row", i -> "Row " + i)
+                .withColumn("Value", i -> "<" + i * 3 + ">");
+        Path path = dir.resolve("report.html");
+        try (MappedHtmlFile file = new MappedHtmlFile(path, 1 << 16)) {
+            table.render(IntStream.range(0, 10_000).boxed(), file);
+            assertTrue(file.size() > 1 << 16);
+        }
+        String expected = table.render(IntStream.range(0, 10_000).boxed(), new StringBuilder()).toString();
+        assertEquals(expected, new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTrailingHighSurrogateIsReplaced() throws IOException {
+        Path path = dir.resolve("tail.html");
+        try (MappedHtmlFile file = new MappedHtmlFile(path, 4096)) {
+            file.append("abcd").append('\uD83D');
+            assertEquals(5, file.size());
+        }
+        assertEquals("abcd?", new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSizeDoesNotSplitASurrogatePair() throws IOException {
+        Path path = dir.resolve("pair.html");
+        try (MappedHtmlFile file = new MappedHtmlFile(path, 4096)) {
+            file.append('\uD83D');
+            assertEquals(1, file.size());
+            file.append('\uDE00');
+            assertEquals(4, file.size());
+        }
+        assertEquals("😀", new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEmptyFileAndClosedWrites() throws IOException {
+        Path path = dir.resolve("empty.html");
+        MappedHtmlFile file = new MappedHtmlFile(path);
+        file.close();
+        file.close();
+        assertEquals(0, Files.size(path));
+        assertThrows(ClosedChannelException.class, () -> file.append("x"));
+        assertThrows(IllegalArgumentException.class, () -> new MappedHtmlFile(path, 4095));
+    }
+}
@@ -0,0 +1,103 @@
+package org.example;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeteredRenderTest {
+
+    @AfterEach
+    public void restoreNoop() {
+        MeteredRender.setMetrics(RenderMetrics.NOOP);
+        MeteredRender.setSampleInterval(MeteredRender.DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    @Test
+    public void testNoopIsDefaultAndRendersUnchanged() {
+        assertSame(RenderMetrics.NOOP, MeteredRender.metrics());
+        assertEquals("<div class=\"container\">Hello</div>", MeteredRender.render(div("Hello").withClass("container")));
+    }
+
+    @Test
+    public void testRecordsOneSamplePerRender() {
+        JmxRenderMetrics metrics = new JmxRenderMetrics();
+        MeteredRender.setMetrics(metrics);
+        MeteredRender.setSampleInterval(1);
+        String html = Main.generateHtml();
+        Main.generateHtml();
+        assertEquals(2, metrics.getCount());
+        assertEquals(html.length(), metrics.getMeanOutputChars(), 0.0);
+        // html, head, title, text, body, h1, text, p, text
+        assertEquals(9, metrics.getMeanNodeCount(), 0.0);
+        assertTrue(metrics.getLatencyP50Nanos() > 0);
+        assertTrue(metrics.getLatencyP50Nanos() <= metrics.getLatencyMaxNanos());
+        assertNotEquals(0, metrics.getMeanAllocatedBytes(), 0.0);
+    }
+
+    @Test
+    public void testRenderToAppendable() throws IOException {
+        JmxRenderMetrics metrics = new JmxRenderMetrics();
+        MeteredRender.setMetrics(metrics);
+        MeteredRender.setSampleInterval(1);
+        StringWriter out = new StringWriter();
+        MeteredRender.render(ul(li("One"), li(img().withSrc("a.png"))), out);
+        assertEquals("<ul><li>One</li><li><img src=\"a.png\"></li></ul>", out.toString());
+        assertEquals(5, metrics.getMeanNodeCount(), 0.0);
+        assertEquals(out.toString().length(), metrics.getMeanOutputChars(), 0.0);
+    }
+
+    @Test
+    public void testResetClearsStats() {
+        JmxRenderMetrics metrics = new JmxRenderMetrics();
+        metrics.record(1000, 10, 2, 64);
+        metrics.reset();
+        assertEquals(0, metrics.getCount());
+        assertTrue(Double.isNaN(metrics.getMeanAllocatedBytes()));
+    }
+
+    @Test
+    public void testUntrackedAllocationIsDistinctFromNoData() {
+        JmxRenderMetrics metrics = new JmxRenderMetrics();
+        assertTrue(Double.isNaN(metrics.getMeanAllocatedBytes()));
+        metrics.record(1000, 10, 2, -1);
+        assertEquals(-1, metrics.getMeanAllocatedBytes(), 0.0);
+    }
+
+    @Test
+    public void testSamplesAFractionOfRenders() {
+        JmxRenderMetrics metrics = new JmxRenderMetrics();
+        MeteredRender.setMetrics(metrics);
+        MeteredRender.setSampleInterval(8);
+        String expected = Main.page().render();
+        for (int i = 0; i < 8_000; i++) {
+            assertEquals(expected, Main.generateHtml());
+        }
+        // binomial(8000, 1/8): mean 1000, standard deviation about 30
+        assertTrue(metrics.getCount() > 800 && metrics.getCount() < 1200, "sampled " + metrics.getCount());
+        assertEquals(expected.length(), metrics.getMeanOutputChars(), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> MeteredRender.setSampleInterval(0));
+    }
+
+    @Test
+    public void testRegistersWithPlatformMBeanServer() throws JMException {
+        JmxRenderMetrics metrics = new JmxRenderMetrics();
+        metrics.record(2000, 100, 5, 256);
+        ObjectName name = metrics.register("test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "Count"));
+            assertEquals(5.0, server.getAttribute(name, "MeanNodeCount"));
+        } finally {
+            metrics.unregister("test");
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,69 @@
+package org.example;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageBatchRendererTest {
+    private final ExecutorService executor = PageBatchRenderer.newExecutor();
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRendersEveryPage() throws Exception {
+        Map<Integer, String> pages = new ConcurrentHashMap<>();
+        PageBatchRenderer<Integer> renderer = new PageBatchRenderer<>(i -> div(p("Page " + i)), executor, 16);
+        PageBatchRenderer.BatchStats stats = renderer.renderAll(IntStream.range(0, 1000).boxed(), pages::put);
+        assertEquals(1000, stats.pages());
+        assertEquals(1000, pages.size());
+        assertEquals("<div><p>Page 42</p></div>", pages.get(42));
+        assertTrue(stats.pagesPerSecond() > 0);
+        assertTrue(stats.latencyNanos(50) <= stats.latencyNanos(99));
+    }
+
+    @Test
+    public void testBoundsInFlightPages() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        PageBatchRenderer<Integer> renderer = new PageBatchRenderer<>(i -> span("" + i), executor, 3);
+        renderer.renderAll(IntStream.range(0, 200).boxed(), (model, html) -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+        });
+        assertTrue(peak.get() <= 3, "peak in-flight " + peak.get());
+    }
+
+    @Test
+    public void testPropagatesSinkFailure() {
+        PageBatchRenderer<Integer> renderer = new PageBatchRenderer<>(i -> p("" + i), executor, 4);
+        ExecutionException e = assertThrows(ExecutionException.class, () ->
+                renderer.renderAll(IntStream.range(0, 100).boxed(), (model, html) -> {
+                    if (model == 10) {
+                        throw new IOException("disk full");
+                    }
+                }));
+        assertEquals("disk full", e.getCause().getMessage());
+    }
+
+    @Test
+    public void testRejectsNonPositiveInFlight() {
+        assertThrows(IllegalArgumentException.class, () -> new PageBatchRenderer<Integer>(i -> p(""), executor, 0));
+    }
+}
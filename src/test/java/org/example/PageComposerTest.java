@@ -0,0 +1,238 @@
+package org.example;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageComposerTest {
+
+    /** Records what had been written at every flush. */
+    private static class FlushRecorder extends StringWriter {
+        final List<String> flushes = new ArrayList<>();
+
+        @Override
+        public void flush() {
+            flushes.add(toString());
+        }
+    }
+
+    private static <T> T slow(long millis, T value) throws InterruptedException {
+        Thread.sleep(millis);
+        return value;
+    }
+
+    @Test
+    public void testSectionsAreStitchedInDocumentOrder() throws Exception {
+        PageComposer composer = new PageComposer()
+                .section("header", () -> slow(150, header(h1("Title"))))
+                .section("nav", () -> slow(50, nav(ul(li("Home"), li("About")))))
+                .section("main", () -> main(p("Body & more")))
+                .section("footer", () -> slow(100, footer("Bye")));
+        assertEquals("<header><h1>Title</h1></header><nav><ul><li>Home</li><li>About</li></ul></nav>"
+                        + "<main><p>Body &amp; more</p></main><footer>Bye</footer>",
+                composer.compose().render());
+    }
+
+    @Test
+    public void testLatencyIsTheSlowestSectionNotTheSum() throws Exception {
+        PageComposer composer = new PageComposer();
+        for (int i = 0; i < 5; i++) {
+            int n = i;
+            composer.section("s" + i, () -> slow(200, p("Section " + n)));
+        }
+        long start = System.nanoTime();
+        composer.compose();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis < 800, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    public void testTimedOutSectionFallsBackAndIsInterrupted() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        PageComposer composer = new PageComposer()
+                .section("fast", () -> p("fast"))
+                .section("slow", () -> {
+                    try {
+                        return slow(10_000, p("slow"));
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                }, 100, TimeUnit.MILLISECONDS, p("Unavailable"));
+        long start = System.nanoTime();
+        assertEquals("<p>fast</p><p>Unavailable</p>", composer.compose().render());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNoSectionThreadOutlivesCompose() throws Exception {
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        PageComposer composer = new PageComposer()
+                .section("fast", () -> {
+                    threads.add(Thread.currentThread());
+                    return p("fast");
+                })
+                .section("slow", () -> {
+                    threads.add(Thread.currentThread());
+                    return slow(10_000, p("slow"));
+                }, 50, TimeUnit.MILLISECONDS, p("Unavailable"));
+        for (int i = 0; i < 3; i++) {
+            assertEquals("<p>fast</p><p>Unavailable</p>", composer.compose().render());
+            synchronized (threads) {
+                assertEquals(2 * (i + 1), threads.size());
+                for (Thread thread : threads) {
+                    assertFalse(thread.isAlive(), thread + " is still running");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFailedSectionWithFallback() throws Exception {
+        PageComposer composer = new PageComposer()
+                .section("broken", () -> {
+                    throw new IllegalStateException("no data");
+                }, 1, TimeUnit.SECONDS, span("Try again later"))
+                .section("ok", () -> span("ok"));
+        assertEquals("<span>Try again later</span><span>ok</span>", composer.compose().render());
+    }
+
+    @Test
+    public void testFailedRequiredSectionFailsThePageAndCancelsTheRest() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        PageComposer composer = new PageComposer()
+                .section("slow", () -> {
+                    try {
+                        return slow(10_000, p("slow"));
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                })
+                .section("broken", () -> {
+                    Thread.sleep(50);
+                    throw new IllegalStateException("no data");
+                });
+        long start = System.nanoTime();
+        ExecutionException e = assertThrows(ExecutionException.class, composer::compose);
+        assertTrue(e.getMessage().contains("'broken'"));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testComposedSectionsNestInsideATree() throws Exception {
+        PageComposer composer = new PageComposer()
+                .section("a", () -> li("A"))
+                .section("b", () -> li("B"));
+        assertEquals("<body><ul><li>A</li><li>B</li></ul></body>", body(ul(composer.compose())).render());
+    }
+
+    @Test
+    public void testComposerCanBeReused() throws Exception {
+        PageComposer composer = new PageComposer().section("a", () -> p("A"));
+        assertEquals("<p>A</p>", composer.compose().render());
+        assertEquals("<p>A</p>", composer.compose().render());
+    }
+
+    @Test
+    public void testNegativeTimeoutIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PageComposer().section("a", () -> p(), -1, TimeUnit.SECONDS, p()));
+    }
+
+    @Test
+    public void testStreamFlushesHeadBeforeSectionsComplete() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FlushRecorder out = new FlushRecorder();
+        String head = "<!DOCTYPE html><html><head><title>Shop</title><link rel=\"stylesheet\" href=\"/app.css\"></head><body>";
+        PageComposer composer = new PageComposer()
+                .section("main", () -> {
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                    return main("Content");
+                });
+        Thread streamer = new Thread(() -> {
+            try {
+                composer.stream(head(title("Shop"), link().withRel("stylesheet").withHref("/app.css")), out);
+            } catch (IOException | InterruptedException | ExecutionException e) {
+                throw new AssertionError(e);
+            }
+        });
+        streamer.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (out.flushes.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(head, out.flushes.get(0));
+        release.countDown();
+        streamer.join(5_000);
+        assertEquals(head + "<main>Content</main></body></html>", out.toString());
+    }
+
+    @Test
+    public void testStreamHoldsBackOutOfOrderSections() throws Exception {
+        FlushRecorder out = new FlushRecorder();
+        new PageComposer()
+                .section("first", () -> slow(300, p("1")))
+                .section("second", () -> p("2"))
+                .section("third", () -> slow(100, p("3")))
+                .section("fourth", () -> slow(600, p("4")))
+                .stream(head(), out);
+        String head = "<!DOCTYPE html><html><head></head><body>";
+        assertEquals(head, out.flushes.get(0));
+        // 2 and 3 finish first but wait for 1, which releases all three at once
+        assertEquals(head + "<p>1</p><p>2</p><p>3</p>", out.flushes.get(1));
+        assertEquals(head + "<p>1</p><p>2</p><p>3</p><p>4</p>", out.flushes.get(2));
+        assertEquals(head + "<p>1</p><p>2</p><p>3</p><p>4</p></body></html>", out.toString());
+        assertEquals(4, out.flushes.size());
+    }
+
+    @Test
+    public void testStreamWritesFallbackInPlace() throws Exception {
+        StringWriter out = new PageComposer()
+                .section("late", () -> slow(10_000, p("late")), 50, TimeUnit.MILLISECONDS, p("Loading failed"))
+                .section("ok", () -> p("ok"))
+                .stream(head(), new StringWriter());
+        assertEquals("<!DOCTYPE html><html><head></head><body><p>Loading failed</p><p>ok</p></body></html>", out.toString());
+    }
+
+    @Test
+    public void testStreamWritesHtmlAndBodyAttributes() throws Exception {
+        StringWriter out = new PageComposer()
+                .section("main", () -> main("Inhalt"))
+                .stream(html().withLang("de"), head(title("Seite")), body().withClass("shop & co"), new StringWriter());
+        assertEquals("<!DOCTYPE html><html lang=\"de\"><head><title>Seite</title></head>"
+                + "<body class=\"shop &amp; co\"><main>Inhalt</main></body></html>", out.toString());
+    }
+
+    @Test
+    public void testStreamRejectsBodyWithContent() {
+        PageComposer composer = new PageComposer().section("main", () -> main("x"));
+        assertThrows(IllegalArgumentException.class,
+                () -> composer.stream(html(), head(), body(p("stray")), new StringWriter()));
+    }
+
+    @Test
+    public void testStreamFailureLeavesDocumentUnterminated() {
+        StringWriter out = new StringWriter();
+        PageComposer composer = new PageComposer()
+                .section("ok", () -> p("ok"))
+                .section("broken", () -> {
+                    Thread.sleep(100);
+                    throw new IllegalStateException("no data");
+                });
+        assertThrows(ExecutionException.class, () -> composer.stream(head(), out));
+        assertEquals("<!DOCTYPE html><html><head></head><body><p>ok</p>", out.toString());
+    }
+}
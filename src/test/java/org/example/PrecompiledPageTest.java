@@ -0,0 +1,100 @@
+package org.example;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrecompiledPageTest {
+
+    @Test
+    public void testPrecompiledPageMatchesGenerateHtml() {
+        assertEquals(Main.generateHtml(), Main.precompiledPage().html());
+    }
+
+    @Test
+    public void testUtf8BytesMatchHtml() {
+        PrecompiledPage page = new PrecompiledPage(() -> p("Grüße & <Tschüss>"));
+        assertArrayEquals("<p>Grüße &amp; &lt;Tschüss&gt;</p>".getBytes(StandardCharsets.UTF_8), page.utf8Bytes());
+        assertEquals(page.utf8Bytes().length, page.utf8Length());
+    }
+
+    @Test
+    public void testTemplateIsRenderedOnlyOnce() {
+        AtomicInteger builds = new AtomicInteger();
+        PrecompiledPage page = new PrecompiledPage(() -> {
+            builds.incrementAndGet();
+            return div("Cached");
+        });
+        assertEquals("<div>Cached</div>", page.html());
+        assertEquals("<div>Cached</div>", page.html());
+        page.utf8Bytes();
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    public void testInvalidateRendersAgain() {
+        String[] text = {"First"};
+        PrecompiledPage page = new PrecompiledPage(() -> span(text[0]));
+        assertEquals("<span>First</span>", page.html());
+        text[0] = "Second";
+        assertEquals("<span>First</span>", page.html());
+        page.invalidate();
+        assertEquals("<span>Second</span>", page.html());
+    }
+
+    @Test
+    public void testWriteToAndByteCopiesAreIndependent() throws IOException {
+        PrecompiledPage page = new PrecompiledPage(() -> h1("Title"));
+        page.utf8Bytes()[0] = 'X';
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        page.writeTo(out);
+        assertEquals("<h1>Title</h1>", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testUtf8BufferIsAReadOnlyView() {
+        PrecompiledPage page = new PrecompiledPage(() -> h1("Title"));
+        ByteBuffer buffer = page.utf8Buffer();
+        assertTrue(buffer.isReadOnly());
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertArrayEquals(page.utf8Bytes(), bytes);
+    }
+
+    @Test
+    public void testInvalidateDuringFirstRenderDropsItsResult() throws InterruptedException {
+        String[] text = {"Old"};
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PrecompiledPage page = new PrecompiledPage(() -> {
+            String current = text[0];
+            rendering.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return span(current);
+        });
+        Thread reader = new Thread(page::html);
+        reader.start();
+        rendering.await();
+        text[0] = "New";
+        Thread invalidator = new Thread(page::invalidate);
+        invalidator.start();
+        while (invalidator.getState() != Thread.State.BLOCKED && invalidator.isAlive()) {
+            Thread.yield();
+        }
+        release.countDown();
+        reader.join();
+        invalidator.join();
+        assertEquals("<span>New</span>", page.html());
+    }
+}
@@ -0,0 +1,98 @@
+package org.example;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderBufferPoolTest {
+
+    @Test
+    public void testRenderMatchesPlainRender() {
+        RenderBufferPool pool = new RenderBufferPool(4, 1 << 16);
+        assertEquals(Main.generateHtml(), pool.render(Main.page()));
+        assertEquals("<ul><li>One</li><li>Two &amp; Three</li></ul>", pool.render(ul(li("One"), li("Two & Three"))));
+    }
+
+    @Test
+    public void testBuffersAreReused() {
+        RenderBufferPool pool = new RenderBufferPool(4, 1 << 16);
+        for (int i = 0; i < 100; i++) {
+            pool.render(p("Paragraph " + i));
+        }
+        assertEquals(100, pool.acquires());
+        assertEquals(99, pool.reuses());
+        assertEquals(0.99, pool.reuseRate(), 1e-9);
+        assertTrue(pool.retainedChars() > 0);
+    }
+
+    @Test
+    public void testReleasedBufferIsEmpty() {
+        RenderBufferPool pool = new RenderBufferPool(1, 1 << 16);
+        StringBuilder buffer = pool.acquire();
+        buffer.append("leftover");
+        pool.release(buffer);
+        assertSame(buffer, pool.acquire());
+        assertEquals(0, buffer.length());
+    }
+
+    @Test
+    public void testOversizedBuffersAreDiscarded() {
+        RenderBufferPool pool = new RenderBufferPool(2, 4096);
+        StringBuilder huge = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            huge.append(p("Paragraph " + i).render());
+        }
+        assertTrue(pool.render(div(rawHtml(huge.toString()))).length() > 4096);
+        assertEquals(1, pool.discards());
+        assertEquals(0, pool.retainedChars());
+    }
+
+    @Test
+    public void testNewBuffersFollowAverageLength() {
+        RenderBufferPool pool = new RenderBufferPool(1, 1 << 20);
+        String large = new String(new char[2000]).replace('\0', 'x');
+        for (int i = 0; i < 50; i++) {
+            pool.render(p(large));
+        }
+        assertTrue(pool.averageLength() > 1500, "average " + pool.averageLength());
+        StringBuilder first = pool.acquire();
+        StringBuilder fresh = pool.acquire();
+        assertTrue(fresh.capacity() >= pool.averageLength());
+        pool.release(first);
+        pool.release(fresh);
+    }
+
+    @Test
+    public void testConcurrentRenders() throws Exception {
+        RenderBufferPool pool = new RenderBufferPool(4, 1 << 16);
+        ExecutorService service = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            tasks.add(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    String text = "Thread " + thread + " item " + i;
+                    if (!pool.render(li(text)).equals("<li>" + text + "</li>")) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+        }
+        try {
+            for (Future<Boolean> result : service.invokeAll(tasks)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            service.shutdown();
+        }
+        assertEquals(8000, pool.acquires());
+    }
+}
@@ -0,0 +1,98 @@
+package org.example;
+import j2html.Config;
+import j2html.tags.DomContent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderSizeEstimatorTest {
+
+    @AfterEach
+    public void restoreGlobals() {
+        FastEscaper.useDefault();
+        Config.closeEmptyTags = false;
+    }
+
+    private static DomContent[] samples() {
+        return new DomContent[]{
+                Main.page(),
+                div(),
+                text(""),
+                each(li("a"), li("b")),
+                form(input().withType("checkbox").isChecked().isDisabled(), br(), img().withSrc("a.png").withAlt("<\"'&>")),
+                p("Grüße <ü> 😀 & 'quotes' \"double\""),
+                div(rawHtml("<b>raw & unescaped</b>"), script("if (a < b && c > d) {}")),
+                table(each(IntStream.range(0, 1000).boxed().map(i -> tr(td("Row " + i), td("<" + i + ">"))))),
+                ul(li(ul(li(ul(li("deep")).withClass("level-3")))).withId("nested")),
+                a("Docs").attr(InternedAttribute.of("href", "/docs?a=1&b=2")),
+                FrozenHtml.freeze(Main.page()),
+                button("Click").attr("onclick", "alert('Clicked!');"),
+                span().attr("data-empty", "")
+        };
+    }
+
+    private static void assertExact() {
+        for (DomContent sample : samples()) {
+            String rendered = sample.render();
+            assertEquals(rendered.length(), RenderSizeEstimator.exactLength(sample), rendered);
+            assertEquals(rendered, RenderSizeEstimator.render(sample));
+        }
+    }
+
+    @Test
+    public void testExactWithDefaultEscaper() {
+        assertExact();
+    }
+
+    @Test
+    public void testExactWithFastEscaper() {
+        FastEscaper.useGlobally();
+        assertExact();
+    }
+
+    @Test
+    public void testExactWithCustomEscaper() {
+        Config.textEscaper = text -> text == null ? null : text.replace("&", "&amp;").replace("o", "[o]");
+        assertExact();
+    }
+
+    @Test
+    public void testExactWithClosedEmptyTags() {
+        Config.closeEmptyTags = true;
+        assertExact();
+    }
+
+    @Test
+    public void testEscapedLength() {
+        assertEquals(0, RenderSizeEstimator.escapedLength(""));
+        assertEquals("&lt;a&gt; &amp; &quot;b&quot; &#x27;c&#x27;".length(), RenderSizeEstimator.escapedLength("<a> & \"b\" 'c'"));
+        assertEquals(4, RenderSizeEstimator.escapedLength(null));
+    }
+
+    @Test
+    public void testPresizedBufferIsNotGrown() {
+        DomContent table = samples()[7];
+        long length = RenderSizeEstimator.exactLength(table);
+        StringBuilder out = new StringBuilder((int) length);
+        out.append(table.render());
+        assertEquals(length, out.capacity());
+    }
+
+    @Test
+    public void testLazyContentIsBuiltOnce() {
+        AtomicInteger built = new AtomicInteger();
+        DomContent page = div(p("before"), LazyHtml.lazy(() -> {
+            built.incrementAndGet();
+            return ul(li("Built & rendered"));
+        }), p("after"));
+        assertEquals("<div><p>before</p><ul><li>Built &amp; rendered</li></ul><p>after</p></div>",
+                RenderSizeEstimator.render(page));
+        assertEquals(1, built.get());
+        assertEquals(page.render().length(), RenderSizeEstimator.exactLength(page));
+    }
+}
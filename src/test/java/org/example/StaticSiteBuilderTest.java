@@ -0,0 +1,123 @@
+package org.example;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaticSiteBuilderTest {
+    @TempDir
+    Path dir;
+
+    private StaticSiteBuilder<String[]> builder(String version) {
+        return new StaticSiteBuilder<>(dir, version,
+                page -> "posts/" + page[0] + ".html",
+                page -> page[1],
+                page -> html(head(title(page[0])), body(h1(page[0]), p(page[1]))));
+    }
+
+    private static List<String[]> pages(int count) {
+        List<String[]> pages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pages.add(new String[]{"post-" + i, "Body of post " + i});
+        }
+        return pages;
+    }
+
+    private String read(String path) throws IOException {
+        return new String(Files.readAllBytes(dir.resolve(path)), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testFirstBuildRendersEverything() throws IOException {
+        StaticSiteBuilder.BuildReport report = builder("v1").build(pages(50).stream());
+        assertEquals(50, report.rendered());
+        assertEquals(0, report.skipped());
+        assertEquals(html(head(title("post-7")), body(h1("post-7"), p("Body of post 7"))).render(), read("posts/post-7.html"));
+    }
+
+    @Test
+    public void testUnchangedPagesAreSkipped() throws IOException {
+        builder("v1").build(pages(50).stream());
+        StaticSiteBuilder.BuildReport report = builder("v1").build(pages(50).stream());
+        assertEquals(0, report.rendered());
+        assertEquals(50, report.skipped());
+    }
+
+    @Test
+    public void testOnlyChangedPageIsRebuilt() throws IOException {
+        builder("v1").build(pages(50).stream());
+        List<String[]> changed = pages(50);
+        changed.get(3)[1] = "Edited <body>";
+        StaticSiteBuilder.BuildReport report = builder("v1").build(changed.stream());
+        assertEquals(1, report.rendered());
+        assertEquals(49, report.skipped());
+        assertTrue(read("posts/post-3.html").contains("<p>Edited &lt;body&gt;</p>"));
+    }
+
+    @Test
+    public void testTemplateVersionRebuildsEverything() throws IOException {
+        builder("v1").build(pages(10).stream());
+        assertEquals(10, builder("v2").build(pages(10).stream()).rendered());
+    }
+
+    @Test
+    public void testMissingOutputIsRebuilt() throws IOException {
+        builder("v1").build(pages(10).stream());
+        Files.delete(dir.resolve("posts/post-4.html"));
+        assertEquals(1, builder("v1").build(pages(10).stream()).rendered());
+        assertTrue(Files.exists(dir.resolve("posts/post-4.html")));
+    }
+
+    @Test
+    public void testRemovedPagesAreDeleted() throws IOException {
+        builder("v1").build(pages(10).stream());
+        StaticSiteBuilder.BuildReport report = builder("v1").build(pages(7).stream());
+        assertEquals(3, report.deleted());
+        assertFalse(Files.exists(dir.resolve("posts/post-8.html")));
+        assertTrue(Files.exists(dir.resolve("posts/post-6.html")));
+        assertEquals(0, builder("v1").build(pages(7).stream()).deleted());
+        assertEquals(3, builder("v1").build(pages(10).stream()).rendered());
+    }
+
+    @Test
+    public void testCorruptIndexMeansFullRebuild() throws IOException {
+        builder("v1").build(pages(10).stream());
+        Files.write(dir.resolve(StaticSiteBuilder.INDEX_FILE), new byte[]{1, 2, 3});
+        assertEquals(10, builder("v1").build(pages(10).stream()).rendered());
+        assertEquals(0, builder("v1").build(pages(10).stream()).rendered());
+    }
+
+    @Test
+    public void testNoTemporaryFilesLeftBehind() throws IOException {
+        builder("v1").build(pages(10).stream());
+        List<String> leftovers;
+        try (Stream<Path> files = Files.walk(dir)) {
+            leftovers = files.map(p -> p.getFileName().toString()).filter(n -> n.endsWith(".tmp")).collect(Collectors.toList());
+        }
+        assertEquals(0, leftovers.size(), leftovers.toString());
+    }
+
+    @Test
+    public void testRejectsPathsOutsideOutputDirectory() {
+        StaticSiteBuilder<String> builder = new StaticSiteBuilder<>(dir, "v1", page -> "../" + page, page -> page, page -> p(page));
+        assertThrows(IllegalArgumentException.class, () -> builder.build(Stream.of("evil.html")));
+    }
+
+    @Test
+    public void testFingerprintDependsOnBothInputs() {
+        assertNotEquals(StaticSiteBuilder.fingerprint("v1", "a"), StaticSiteBuilder.fingerprint("v2", "a"));
+        assertNotEquals(StaticSiteBuilder.fingerprint("v1", "a"), StaticSiteBuilder.fingerprint("v1", "b"));
+        assertNotEquals(StaticSiteBuilder.fingerprint("ab", "c"), StaticSiteBuilder.fingerprint("a", "bc"));
+        assertEquals(StaticSiteBuilder.fingerprint("v1", "a"), StaticSiteBuilder.fingerprint("v1", "a"));
+    }
+}
@@ -0,0 +1,127 @@
+package org.example;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingTableTest {
+    private static final List<String[]> ROWS = Arrays.asList(
+            new String[]{"Alice", "30"},
+            new String[]{"Bob <admin>", "25"},
+            new String[]{"Carol & \"Dave\"", "41"});
+
+    @Test
+    public void testMatchesTableWithEach() throws IOException {
+        StreamingTable<String[]> table = new StreamingTable<String[]>()
+                .withColumn(r -> r[0])
+                .withColumn(r -> r[1]);
+        String expected = table(each(ROWS, r -> tr(td(r[0]), td(r[1])))).render();
+        assertEquals(expected, table.render(ROWS, new StringBuilder()).toString());
+    }
+
+    @Test
+    public void testMatchesTableWithHeaderAndAttributes() throws IOException {
+        StreamingTable<String[]> table = new StreamingTable<String[]>()
+                .withId("people")
+                .withClass("report")
+                .withColumn("Name", r -> r[0])
+                .withColumn("Age", r -> r[1]);
+        String expected = table(
+                thead(tr(th("Name"), th("Age"))),
+                tbody(each(ROWS, r -> tr(td(r[0]), td(r[1]))))
+        ).withId("people").withClass("report").render();
+        assertEquals(expected, table.render(ROWS.stream(), new StringWriter()).toString());
+    }
+
+    @Test
+    public void testEmptyTable() throws IOException {
+        StreamingTable<String> table = new StreamingTable<String>().withColumn(s -> s);
+        assertEquals(table().render(), table.render(Collections.<String>emptyList(), new StringBuilder()).toString());
+    }
+
+    @Test
+    public void testBooleanAttributeAndNullCell() throws IOException {
+        StreamingTable<Integer> table = new StreamingTable<Integer>()
+                .attr("hidden", null)
+                .withColumn(i -> i % 2 == 0 ? null : "odd");
+        List<Integer> rows = Arrays.asList(1, 2);
+        String expected = table(each(rows, i -> tr(td(i % 2 == 0 ? null : "odd")))).attr("hidden").render();
+        assertEquals(expected, table.render(rows, new StringBuilder()).toString());
+    }
+
+    @Test
+    public void testLargeStream() throws IOException {
+        StreamingTable<Integer> table = new StreamingTable<Integer>()
+                .withColumn(i -> "Row " + i)
+                .withColumn(String::valueOf);
+        String streamed = table.render(IntStream.range(0, 10_000).boxed(), new StringBuilder()).toString();
+        String expected = table(each(IntStream.range(0, 10_000).boxed().map(i -> tr(td("Row " + i), td(String.valueOf(i)))))).render();
+        assertEquals(expected, streamed);
+    }
+
+    @Test
+    public void testResultSet() throws Exception {
+        ResultSet resultSet = resultSet(new String[]{"id", "name"}, ROWS);
+        StreamingTable<String[]> table = StreamingTable.forResultSet(resultSet.getMetaData());
+        String expected = table(
+                thead(tr(th("id"), th("name"))),
+                tbody(each(ROWS, r -> tr(td(r[0]), td(r[1]))))
+        ).render();
+        assertEquals(expected, table.render(StreamingTable.rows(resultSet), new StringBuilder()).toString());
+    }
+
+    @Test
+    public void testResultSetErrorsKeepTheirType() throws Exception {
+        ResultSet rows = resultSet(new String[]{"id", "name"}, ROWS);
+        ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(
+                StreamingTableTest.class.getClassLoader(), new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("next")) {
+                        throw new SQLException("connection reset");
+                    }
+                    return method.invoke(rows, args);
+                });
+        StreamingTable<String[]> table = StreamingTable.forResultSet(resultSet.getMetaData());
+        StreamingTable.UncheckedSQLException e = assertThrows(StreamingTable.UncheckedSQLException.class,
+                () -> table.render(StreamingTable.rows(resultSet), new StringBuilder()));
+        assertEquals("connection reset", e.getCause().getMessage());
+    }
+
+    private static ResultSet resultSet(String[] labels, List<String[]> rows) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                StreamingTableTest.class.getClassLoader(), new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount":
+                            return labels.length;
+                        case "getColumnLabel":
+                            return labels[(Integer) args[0] - 1];
+                        default:
+                            throw new SQLException("unsupported: " + method.getName());
+                    }
+                });
+        int[] cursor = {-1};
+        return (ResultSet) Proxy.newProxyInstance(
+                StreamingTableTest.class.getClassLoader(), new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMetaData":
+                            return metaData;
+                        case "next":
+                            return ++cursor[0] < rows.size();
+                        case "getString":
+                            return rows.get(cursor[0])[(Integer) args[0] - 1];
+                        default:
+                            throw new SQLException("unsupported: " + method.getName());
+                    }
+                });
+    }
+}
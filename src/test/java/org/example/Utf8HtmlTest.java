@@ -0,0 +1,109 @@
+package org.example;
+import j2html.Config;
+import j2html.tags.DomContent;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import static j2html.TagCreator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Utf8HtmlTest {
+
+    private static byte[] expected(DomContent content) {
+        return content.render().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] rendered(DomContent content, Config config) throws IOException {
+        return content.render(Utf8Html.into(new Utf8Buffer(16), config)).toByteArray();
+    }
+
+    @Test
+    public void testGenerateHtmlUtf8() throws IOException {
+        Utf8Buffer buffer = new Utf8Buffer();
+        assertArrayEquals(Main.generateHtml().getBytes(StandardCharsets.UTF_8), Main.generateHtmlUtf8(buffer).toByteArray());
+        buffer.reset();
+        Main.generateHtmlUtf8(buffer);
+        assertEquals(Main.generateHtml(), buffer.toString());
+    }
+
+    @Test
+    public void testMatchesStringRendering() throws IOException {
+        DomContent[] samples = {
+                div(p("Hello, world!")).withClass("container").withId("main"),
+                button("Click me").attr("onclick", "alert('Clicked!');"),
+                ul(li("Café"), li("日本語"), li("emoji 😀 & <tags>")),
+                input().withType("checkbox").isChecked(),
+                a("Link").withHref("/search?q=a&b=\"c\"").withTarget("_blank"),
+                div(rawHtml("<b>raw ü</b>"), text(null)),
+                img().withSrc("a.png").attr("data-" + "x", "ß")
+        };
+        for (DomContent sample : samples) {
+            assertArrayEquals(expected(sample), rendered(sample, Config.global()), sample.render());
+        }
+    }
+
+    @Test
+    public void testClosesEmptyTagsWhenConfigured() throws IOException {
+        Config config = Config.global().withEmptyTagsClosed(true);
+        assertEquals("<div><br/><img src=\"x\"/></div>",
+                new String(rendered(div(br(), img().withSrc("x")), config), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFallsBackToCustomEscaper() throws IOException {
+        Config config = Config.global().withTextEscaper(text -> text.toUpperCase());
+        assertEquals("<p title=\"T\">HI</p>", new String(rendered(p("hi").withTitle("t"), config), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWritesToChannel() throws IOException {
+        Utf8Buffer buffer = Main.generateHtmlUtf8(new Utf8Buffer());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (WritableByteChannel channel = Channels.newChannel(bytes)) {
+            buffer.writeTo(channel);
+        }
+        assertArrayEquals(Main.generateHtml().getBytes(StandardCharsets.UTF_8), bytes.toByteArray());
+    }
+
+    @Test
+    public void testBufferEncodesLikeString() {
+        String[] samples = {"plain", "ü é ß", "中文", "😀😀", "a\uD800b", "\uDC00x", "end\uD83D"};
+        for (String sample : samples) {
+            assertArrayEquals(sample.getBytes(StandardCharsets.UTF_8), new Utf8Buffer(16).append(sample).toByteArray(), sample);
+            Utf8Buffer perChar = new Utf8Buffer(16);
+            for (char c : sample.toCharArray()) {
+                perChar.append(c);
+            }
+            assertArrayEquals(sample.getBytes(StandardCharsets.UTF_8), perChar.toByteArray(), sample);
+        }
+    }
+
+    @Test
+    public void testAccessorsDoNotSplitASurrogatePair() {
+        Utf8Buffer buffer = new Utf8Buffer(16).append("a").append('\uD83D');
+        assertEquals(2, buffer.size());
+        assertEquals("a?", buffer.toString());
+        assertArrayEquals(new byte[]{'a', '?'}, buffer.toByteArray());
+        assertEquals(2, buffer.asByteBuffer().remaining());
+        buffer.append('\uDE00');
+        assertEquals(5, buffer.size());
+        assertArrayEquals("a😀".getBytes(StandardCharsets.UTF_8), buffer.toByteArray());
+    }
+
+    @Test
+    public void testResetKeepsCapacity() {
+        Utf8Buffer buffer = new Utf8Buffer(16);
+        for (int i = 0; i < 100; i++) {
+            buffer.append("grow the buffer ");
+        }
+        int capacity = buffer.capacity();
+        buffer.reset().append("x");
+        assertEquals(1, buffer.size());
+        assertEquals(capacity, buffer.capacity());
+    }
+}